@@ -33,6 +33,13 @@ export const removeCartItem = async (cartItemId) => {
   return response.data;
 };
 
+// Apply several cart changes in one request, e.g.
+// [{ op: 'ADD', productId, quantity }, { op: 'SET_QUANTITY', cartItemId, quantity }, { op: 'REMOVE', cartItemId }]
+export const applyCartOperations = async (operations) => {
+  const response = await axiosInstance.patch(API_ENDPOINTS.CART.BASE, operations);
+  return response.data;
+};
+
 // Clear cart
 export const clearCart = async () => {
   const response = await axiosInstance.delete(API_ENDPOINTS.CART.BASE);
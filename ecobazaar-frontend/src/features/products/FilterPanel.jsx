@@ -3,7 +3,8 @@ import PropTypes from 'prop-types';
 import { Leaf, AlertTriangle, XCircle } from 'lucide-react';
 import { PRODUCT_CATEGORIES } from '../../utils/constants';
 
-const FilterPanel = ({ onFilter, onReset }) => {
+// facets: optional { categories, ecoRatings, ecoCertified } counts from /products/query
+const FilterPanel = ({ onFilter, onReset, facets }) => {
   const [filters, setFilters] = useState({
     category: '',
     ecoRating: '',
@@ -71,6 +72,7 @@ const FilterPanel = ({ onFilter, onReset }) => {
             {PRODUCT_CATEGORIES.map((cat) => (
               <option key={cat.value} value={cat.value}>
                 {cat.label}
+                {facets && ` (${facets.categories?.[cat.value] ?? 0})`}
               </option>
             ))}
           </select>
@@ -95,6 +97,9 @@ const FilterPanel = ({ onFilter, onReset }) => {
                 <span className={`flex items-center gap-1 text-sm ${rating.color} group-hover:font-semibold transition-all`}>
                   {rating.icon}
                   {rating.label}
+                  {facets && (
+                    <span className="text-xs text-gray-400">({facets.ecoRatings?.[rating.value] ?? 0})</span>
+                  )}
                 </span>
               </label>
             ))}
@@ -120,6 +125,7 @@ const FilterPanel = ({ onFilter, onReset }) => {
             />
             <span className="text-sm text-gray-700 group-hover:text-green-600 transition-colors">
               ✓ Eco-Certified Only
+              {facets && <span className="text-xs text-gray-400 ml-1">({facets.ecoCertified})</span>}
             </span>
           </label>
         </div>
@@ -176,6 +182,11 @@ const FilterPanel = ({ onFilter, onReset }) => {
 FilterPanel.propTypes = {
   onFilter: PropTypes.func.isRequired,
   onReset: PropTypes.func.isRequired,
+  facets: PropTypes.shape({
+    categories: PropTypes.object,
+    ecoRatings: PropTypes.object,
+    ecoCertified: PropTypes.number,
+  }),
 };
 
 export default FilterPanel;
@@ -80,7 +80,7 @@ const ProductCard = ({ product, showActions = false, onEdit, onDelete }) => {
 
         {/* Description */}
         <p className="text-xs text-gray-600 leading-relaxed line-clamp-2">
-          {truncateText(product.description, 60)}
+          {truncateText(product.summary ?? product.description, 60)}
         </p>
 
         {/* Carbon Badge */}
@@ -132,6 +132,7 @@ ProductCard.propTypes = {
   product: PropTypes.shape({
     id: PropTypes.number.isRequired,
     name: PropTypes.string.isRequired,
+    summary: PropTypes.string,
     description: PropTypes.string,
     category: PropTypes.string.isRequired,
     price: PropTypes.number.isRequired,
@@ -1,9 +1,13 @@
 import axiosInstance from '../../services/axiosInstance';
 import { API_ENDPOINTS } from '../../utils/constants';
 
-// Get all approved products (PUBLIC)
-export const getApprovedProducts = async () => {
-  const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.APPROVED);
+// Listing endpoints return a page: { items, next }. Pass `next` back as cursor for the following page.
+
+// Get approved products (PUBLIC)
+export const getApprovedProducts = async (cursor, limit) => {
+  const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.APPROVED, {
+    params: { cursor, limit },
+  });
   return response.data;
 };
 
@@ -14,51 +18,64 @@ export const getProductById = async (id) => {
 };
 
 // Search products (PUBLIC)
-export const searchProducts = async (keyword) => {
+export const searchProducts = async (keyword, cursor, limit) => {
   const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.SEARCH, {
-    params: { keyword },
+    params: { keyword, cursor, limit },
   });
   return response.data;
 };
 
+// Combined filter/keyword/sort query with facet counts (PUBLIC)
+// params: category, ecoRating, ecoCertified, minPrice, maxPrice, minCarbon, maxCarbon, keyword, sort, cursor, limit
+export const queryProducts = async (params) => {
+  const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.QUERY, { params });
+  return response.data;
+};
+
 // Get products by category (PUBLIC)
-export const getProductsByCategory = async (category) => {
-  const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.CATEGORY(category));
+export const getProductsByCategory = async (category, cursor, limit) => {
+  const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.CATEGORY(category), {
+    params: { cursor, limit },
+  });
   return response.data;
 };
 
 // Filter by eco-rating (PUBLIC)
-export const getProductsByEcoRating = async (rating) => {
+export const getProductsByEcoRating = async (rating, cursor, limit) => {
   const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.ECO_RATING, {
-    params: { rating },
+    params: { rating, cursor, limit },
   });
   return response.data;
 };
 
 // Get eco-certified products (PUBLIC)
-export const getEcoCertifiedProducts = async () => {
-  const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.ECO_CERTIFIED);
+export const getEcoCertifiedProducts = async (cursor, limit) => {
+  const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.ECO_CERTIFIED, {
+    params: { cursor, limit },
+  });
   return response.data;
 };
 
 // Get products sorted by carbon impact (PUBLIC)
-export const getEcoSortedProducts = async () => {
-  const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.ECO_SORTED);
+export const getEcoSortedProducts = async (cursor, limit) => {
+  const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.ECO_SORTED, {
+    params: { cursor, limit },
+  });
   return response.data;
 };
 
 // Filter by price range (PUBLIC)
-export const getProductsByPriceRange = async (min, max) => {
+export const getProductsByPriceRange = async (min, max, cursor, limit) => {
   const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.PRICE_FILTER, {
-    params: { min, max },
+    params: { min, max, cursor, limit },
   });
   return response.data;
 };
 
 // Filter by max carbon impact (PUBLIC)
-export const getProductsByMaxCarbon = async (max) => {
+export const getProductsByMaxCarbon = async (max, cursor, limit) => {
   const response = await axiosInstance.get(API_ENDPOINTS.PRODUCTS.CARBON_FILTER, {
-    params: { max },
+    params: { max, cursor, limit },
   });
   return response.data;
 };
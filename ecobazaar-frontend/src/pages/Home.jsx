@@ -99,7 +99,7 @@ export default function Home() {
                     {product.name}
                   </h3>
                   <p className="text-gray-600 text-xs mb-3 line-clamp-2">
-                    {product.description}
+                    {product.summary}
                   </p>
                   
                   <div className="flex items-center gap-2 mb-3 text-xs text-gray-500">
@@ -6,7 +6,7 @@ import Layout from '../components/Layout';
 import Loader from '../components/Loader';
 import CarbonBadge from '../components/CarbonBadge';
 import EcoRatingBadge from '../components/EcoRatingBadge';
-import { getProductById, getApprovedProducts } from '../features/products/productAPI';
+import { getProductById, getProductsByCategory } from '../features/products/productAPI';
 import { getGreenerAlternatives, getSimilarProducts } from '../features/recommendations/recommendationAPI';
 import { addToCart } from '../features/cart/cartAPI';
 import { formatPrice, formatCarbonImpact, getProductImageUrl } from '../utils/helpers';
@@ -57,9 +57,9 @@ const ProductDetail = () => {
       }
 
       // Fallback: Fetch related products (same category)
-      const allProducts = await getApprovedProducts();
-      const related = allProducts
-        .filter(p => p.category === productData.category && p.id !== productData.id)
+      const categoryPage = await getProductsByCategory(productData.category, null, 5);
+      const related = categoryPage.items
+        .filter(p => p.id !== productData.id)
         .slice(0, 4);
       setRelatedProducts(related);
 
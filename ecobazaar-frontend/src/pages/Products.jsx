@@ -1,35 +1,43 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useCallback } from 'react';
 import Layout from '../components/Layout';
 import SearchBar from '../features/products/SearchBar';
 import FilterPanel from '../features/products/FilterPanel';
 import ProductList from '../features/products/ProductList';
 import { Leaf } from 'lucide-react';
-import { 
-  getApprovedProducts, 
-  searchProducts, 
-  getProductsByCategory,
-  getProductsByEcoRating,
-  getEcoCertifiedProducts,
-} from '../features/products/productAPI';
+import { queryProducts } from '../features/products/productAPI';
+
+// Map panel filters + search box to /products/query params (empty values are left out)
+const toQueryParams = (filters, keyword) => ({
+  category: filters.category || undefined,
+  ecoRating: filters.ecoRating || undefined,
+  ecoCertified: filters.ecoCertified || undefined,
+  minPrice: filters.minPrice || undefined,
+  maxPrice: filters.maxPrice || undefined,
+  maxCarbon: filters.maxCarbon || undefined,
+  keyword: keyword.trim() || undefined,
+});
 
 const Products = () => {
   const [products, setProducts] = useState([]);
-  const [filteredProducts, setFilteredProducts] = useState([]);
+  const [facets, setFacets] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [searchTerm, setSearchTerm] = useState('');
   const [activeFilters, setActiveFilters] = useState({});
 
-  // Fetch initial products
+  // One server query per search/filter change: results and facet counts together
   useEffect(() => {
-    fetchProducts();
-  }, []);
+    fetchProducts(activeFilters, searchTerm);
+  }, [activeFilters, searchTerm]);
 
-  const fetchProducts = async () => {
+  const fetchProducts = async (filters, keyword) => {
     try {
       setLoading(true);
-      const data = await getApprovedProducts();
-      setProducts(data);
-      setFilteredProducts(data);
+      const page = await queryProducts(toQueryParams(filters, keyword));
+      setProducts(page.items);
+      setNextCursor(page.next);
+      setFacets(page);
     } catch (error) {
       console.error('Error fetching products:', error);
     } finally {
@@ -37,74 +45,38 @@ const Products = () => {
     }
   };
 
-  // Handle search
-  const handleSearch = async (keyword) => {
-    setSearchTerm(keyword);
-    
-    if (!keyword.trim()) {
-      // If search is cleared, re-apply existing filters
-      applyFilters(activeFilters, '');
-      return;
+  // Fetch the next page of the current query
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const page = await queryProducts({
+        ...toQueryParams(activeFilters, searchTerm),
+        cursor: nextCursor,
+      });
+      setProducts([...products, ...page.items]);
+      setNextCursor(page.next);
+    } catch (error) {
+      console.error('Error fetching more products:', error);
+    } finally {
+      setLoadingMore(false);
     }
-
-    // Apply search with existing filters
-    applyFilters(activeFilters, keyword);
   };
 
+  // Handle search (stable so SearchBar's debounce does not re-fire on every render)
+  const handleSearch = useCallback((keyword) => {
+    setSearchTerm(keyword);
+  }, []);
+
   // Handle filters
   const handleFilter = (filters) => {
     setActiveFilters(filters);
-    applyFilters(filters, searchTerm);
-  };
-
-  const applyFilters = (filters, currentSearchTerm = '') => {
-    let filtered = [...products];
-
-    // Apply search filter first if search term exists
-    if (currentSearchTerm && currentSearchTerm.trim()) {
-      const searchLower = currentSearchTerm.toLowerCase();
-      filtered = filtered.filter(p => 
-        p.name.toLowerCase().includes(searchLower) || 
-        (p.description && p.description.toLowerCase().includes(searchLower))
-      );
-    }
-
-    // Category filter
-    if (filters.category) {
-      filtered = filtered.filter(p => p.category === filters.category);
-    }
-
-    // Eco-rating filter
-    if (filters.ecoRating) {
-      filtered = filtered.filter(p => p.ecoRating === filters.ecoRating);
-    }
-
-    // Eco-certified filter
-    if (filters.ecoCertified) {
-      filtered = filtered.filter(p => p.ecoCertified === true);
-    }
-
-    // Price range filter
-    if (filters.minPrice) {
-      filtered = filtered.filter(p => p.price >= parseFloat(filters.minPrice));
-    }
-    if (filters.maxPrice) {
-      filtered = filtered.filter(p => p.price <= parseFloat(filters.maxPrice));
-    }
-
-    // Max carbon filter
-    if (filters.maxCarbon) {
-      filtered = filtered.filter(p => p.carbonImpact <= parseFloat(filters.maxCarbon));
-    }
-
-    setFilteredProducts(filtered);
   };
 
   // Reset filters
   const handleResetFilters = () => {
     setActiveFilters({});
     setSearchTerm('');
-    setFilteredProducts(products);
   };
 
   return (
@@ -163,16 +135,27 @@ const Products = () => {
         <div className="grid grid-cols-1 lg:grid-cols-4 gap-6">
           {/* Filter Sidebar */}
           <aside className="lg:col-span-1">
-            <FilterPanel onFilter={handleFilter} onReset={handleResetFilters} />
+            <FilterPanel onFilter={handleFilter} onReset={handleResetFilters} facets={facets} />
           </aside>
 
           {/* Products List */}
           <main className="lg:col-span-3">
             <ProductList
-              products={filteredProducts}
+              products={products}
               loading={loading}
               emptyMessage="No products match your criteria"
             />
+            {nextCursor && !loading && (
+              <div className="flex justify-center mt-8">
+                <button
+                  onClick={loadMore}
+                  disabled={loadingMore}
+                  className="px-6 py-3 bg-green-600 text-white rounded-lg font-semibold hover:bg-green-700 transition-colors disabled:opacity-50"
+                >
+                  {loadingMore ? 'Loading...' : 'Load more products'}
+                </button>
+              </div>
+            )}
           </main>
         </div>
       </div>
@@ -2,22 +2,48 @@ import axiosInstance from './axiosInstance';
 
 /**
  * Get user purchase report - items BOUGHT by user
+ * (includeItems = false returns only totals and breakdowns)
  */
-export const getUserPurchaseReport = async (userId, month) => {
+export const getUserPurchaseReport = async (userId, month, includeItems = true) => {
   const response = await axiosInstance.get(
     `/api/reports/user/${userId}/purchases`,
-    { params: { month } }
+    { params: { month, includeItems } }
   );
   return response.data;
 };
 
 /**
  * Get seller sales report - items SOLD by seller
+ * (includeItems = false returns only totals, breakdowns and daily sales)
  */
-export const getSellerSalesReport = async (sellerId, month) => {
+export const getSellerSalesReport = async (sellerId, month, includeItems = true) => {
   const response = await axiosInstance.get(
     `/api/reports/seller/${sellerId}/sales`,
-    { params: { month } }
+    { params: { month, includeItems } }
+  );
+  return response.data;
+};
+
+/**
+ * Get user purchase reports for a range of months (from/to as YYYY-MM):
+ * { from, to, total, months: [report per month] } in one request
+ */
+export const getUserPurchaseReportRange = async (userId, from, to) => {
+  const response = await axiosInstance.get(
+    `/api/reports/user/${userId}/purchases/range`,
+    { params: { from, to } }
+  );
+  return response.data;
+};
+
+/**
+ * Get seller sales reports for a range of months (from/to as YYYY-MM):
+ * { from, to, total, months: [report per month] } in one request
+ */
+export const getSellerSalesReportRange = async (sellerId, from, to) => {
+  const response = await axiosInstance.get(
+    `/api/reports/seller/${sellerId}/sales/range`,
+    { params: { from, to } }
   );
   return response.data;
 };
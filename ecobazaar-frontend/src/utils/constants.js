@@ -22,6 +22,7 @@ export const API_ENDPOINTS = {
     APPROVED: '/products/approved',
     DETAIL: (id) => `/products/${id}`,
     SEARCH: '/products/search',
+    QUERY: '/products/query',
     CATEGORY: (category) => `/products/category/${category}`,
     ECO_RATING: '/products/filter/eco-rating',
     ECO_CERTIFIED: '/products/eco-certified',
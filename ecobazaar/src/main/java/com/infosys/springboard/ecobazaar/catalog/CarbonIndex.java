@@ -0,0 +1,101 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-category index of available products ordered by (carbonImpact, id).
+ * "Greener than X" is the head of the category's map, so lookups touch only
+ * the handful of entries they return. Updated one product at a time by
+ * {@link ProductCatalog}; readers are lock-free.
+ */
+public class CarbonIndex {
+
+    record CarbonKey(BigDecimal carbonImpact, long id) implements Comparable<CarbonKey> {
+        @Override
+        public int compareTo(CarbonKey other) {
+            int byCarbon = carbonImpact.compareTo(other.carbonImpact);
+            return byCarbon != 0 ? byCarbon : Long.compare(id, other.id);
+        }
+    }
+
+    private final Map<String, ConcurrentSkipListMap<CarbonKey, CatalogProduct>> byCategory =
+            new ConcurrentHashMap<>();
+
+    // Last indexed version of each product, needed to find its old key on update
+    private final Map<Long, CatalogProduct> indexed = new ConcurrentHashMap<>();
+
+    /**
+     * Replace the whole index (initial load)
+     */
+    synchronized void rebuild(Collection<CatalogProduct> products) {
+        byCategory.clear();
+        indexed.clear();
+        for (CatalogProduct product : products) {
+            add(product);
+        }
+    }
+
+    /**
+     * Apply one change. A null or unavailable product removes the id from the index.
+     */
+    synchronized void update(Long id, CatalogProduct product) {
+        CatalogProduct previous = indexed.remove(id);
+        if (previous != null) {
+            ConcurrentSkipListMap<CarbonKey, CatalogProduct> category = byCategory.get(previous.category());
+            if (category != null) {
+                category.remove(keyOf(previous));
+            }
+        }
+        if (product != null) {
+            add(product);
+        }
+    }
+
+    private void add(CatalogProduct product) {
+        if (!product.isAvailable()) {
+            return;
+        }
+        byCategory.computeIfAbsent(product.category(), c -> new ConcurrentSkipListMap<>())
+                .put(keyOf(product), product);
+        indexed.put(product.id(), product);
+    }
+
+    private static CarbonKey keyOf(CatalogProduct product) {
+        return new CarbonKey(product.carbonImpact(), product.id());
+    }
+
+    /**
+     * Up to {@code limit} products in the category with strictly lower carbon impact, lowest first
+     */
+    public List<CatalogProduct> lowerCarbonThan(String category, BigDecimal carbonImpact, Long excludeId, int limit) {
+        ConcurrentSkipListMap<CarbonKey, CatalogProduct> products = byCategory.get(category);
+        if (products == null) {
+            return List.of();
+        }
+
+        List<CatalogProduct> result = new ArrayList<>(limit);
+        for (CatalogProduct product : products.headMap(new CarbonKey(carbonImpact, Long.MIN_VALUE)).values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (!product.id().equals(excludeId)) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * All available products in the category, lowest carbon impact first
+     */
+    public Collection<CatalogProduct> inCategory(String category) {
+        ConcurrentSkipListMap<CarbonKey, CatalogProduct> products = byCategory.get(category);
+        return products == null ? List.of() : products.values();
+    }
+}
@@ -0,0 +1,51 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import com.infosys.springboard.ecobazaar.entity.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable copy of the product fields the storefront reads.
+ * Detached from the persistence context, so it is safe to share across threads.
+ */
+public record CatalogProduct(
+        Long id,
+        String name,
+        String description,
+        String category,
+        BigDecimal price,
+        Integer stock,
+        BigDecimal carbonImpact,
+        Boolean ecoCertified,
+        String ecoRating,
+        Boolean approved,
+        String imageUrl) {
+
+    public static CatalogProduct from(Product product) {
+        return new CatalogProduct(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getCategory(),
+                product.getPrice(),
+                product.getStock(),
+                product.getCarbonImpact(),
+                product.getEcoCertified(),
+                product.getEcoRating(),
+                product.getApproved(),
+                product.getImageUrl()
+        );
+    }
+
+    public CatalogProduct withStock(Integer stock) {
+        return new CatalogProduct(id, name, description, category, price, stock,
+                carbonImpact, ecoCertified, ecoRating, approved, imageUrl);
+    }
+
+    /**
+     * Approved and in stock - the only products recommendations may return
+     */
+    public boolean isAvailable() {
+        return Boolean.TRUE.equals(approved) && stock != null && stock > 0;
+    }
+}
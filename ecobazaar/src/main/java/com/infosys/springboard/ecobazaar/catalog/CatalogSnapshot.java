@@ -0,0 +1,164 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Immutable view of every approved product, with stock read live.
+ * A new snapshot is built for each batch of changes and swapped in whole,
+ * so readers never see a half-applied update. Stock is the exception: it
+ * changes with every checkout but never moves a product in either order, so
+ * it lives in one map shared by all snapshots (kept by ProductCatalog) and
+ * decides at read time which products are available. Per-category ordering
+ * lives in {@link CarbonIndex}, which is updated in place instead.
+ */
+public final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(List.of(), Map.of());
+
+    private static final Comparator<CatalogProduct> BY_CARBON =
+            Comparator.comparing(CatalogProduct::carbonImpact).thenComparing(CatalogProduct::id);
+
+    // Score = (price / 1000) + carbonImpact, lower is better
+    private static final Comparator<CatalogProduct> BY_ECO_VALUE =
+            Comparator.comparingDouble((CatalogProduct p) ->
+                            p.price().doubleValue() / 1000.0 + p.carbonImpact().doubleValue())
+                    .thenComparing(CatalogProduct::id);
+
+    private final Map<Long, CatalogProduct> byId;
+    private final List<CatalogProduct> byCarbon;
+    private final List<CatalogProduct> byEcoValue;
+    // Product id -> current stock, shared with the snapshots before and after this one
+    private final Map<Long, Integer> stock;
+
+    // Above this share of changed products a full sort is cheaper than moving entries one by one
+    private static final int RESORT_DIVISOR = 16;
+
+    private CatalogSnapshot(Collection<CatalogProduct> products, Map<Long, Integer> stock) {
+        Map<Long, CatalogProduct> ids = new HashMap<>();
+        for (CatalogProduct product : products) {
+            if (Boolean.TRUE.equals(product.approved())) {
+                ids.put(product.id(), product);
+            }
+        }
+
+        List<CatalogProduct> carbonOrder = new ArrayList<>(ids.values());
+        carbonOrder.sort(BY_CARBON);
+
+        List<CatalogProduct> ecoValueOrder = new ArrayList<>(ids.values());
+        ecoValueOrder.sort(BY_ECO_VALUE);
+
+        this.byId = Collections.unmodifiableMap(ids);
+        this.byCarbon = Collections.unmodifiableList(carbonOrder);
+        this.byEcoValue = Collections.unmodifiableList(ecoValueOrder);
+        this.stock = stock;
+    }
+
+    private CatalogSnapshot(Map<Long, CatalogProduct> byId, List<CatalogProduct> byCarbon,
+                            List<CatalogProduct> byEcoValue, Map<Long, Integer> stock) {
+        this.byId = Collections.unmodifiableMap(byId);
+        this.byCarbon = Collections.unmodifiableList(byCarbon);
+        this.byEcoValue = Collections.unmodifiableList(byEcoValue);
+        this.stock = stock;
+    }
+
+    static CatalogSnapshot of(Collection<CatalogProduct> products, Map<Long, Integer> stock) {
+        return new CatalogSnapshot(products, stock);
+    }
+
+    /**
+     * Build the next snapshot. Ids mapped to null (or missing from reloaded)
+     * were deleted or are no longer listable. Changes to stock alone need no
+     * new snapshot (see ProductCatalog.apply).
+     */
+    CatalogSnapshot withChanges(Collection<Long> changedIds, Map<Long, CatalogProduct> reloaded) {
+        if (changedIds.size() > byId.size() / RESORT_DIVISOR) {
+            Map<Long, CatalogProduct> next = new HashMap<>(byId);
+            for (Long id : changedIds) {
+                CatalogProduct product = reloaded.get(id);
+                if (product == null) {
+                    next.remove(id);
+                } else {
+                    next.put(id, product);
+                }
+            }
+            return new CatalogSnapshot(next.values(), stock);
+        }
+
+        // Few changes: copy the sorted lists and move only the changed products (binary search)
+        Map<Long, CatalogProduct> next = new HashMap<>(byId);
+        List<CatalogProduct> carbonOrder = new ArrayList<>(byCarbon);
+        List<CatalogProduct> ecoValueOrder = new ArrayList<>(byEcoValue);
+        for (Long id : changedIds) {
+            CatalogProduct previous = next.remove(id);
+            if (previous != null) {
+                remove(carbonOrder, previous, BY_CARBON);
+                remove(ecoValueOrder, previous, BY_ECO_VALUE);
+            }
+            CatalogProduct product = reloaded.get(id);
+            if (product != null && Boolean.TRUE.equals(product.approved())) {
+                next.put(id, product);
+                insert(carbonOrder, product, BY_CARBON);
+                insert(ecoValueOrder, product, BY_ECO_VALUE);
+            }
+        }
+        return new CatalogSnapshot(next, carbonOrder, ecoValueOrder, stock);
+    }
+
+    private static void remove(List<CatalogProduct> sorted, CatalogProduct product, Comparator<CatalogProduct> order) {
+        int index = Collections.binarySearch(sorted, product, order);
+        if (index >= 0) {
+            sorted.remove(index);
+        }
+    }
+
+    private static void insert(List<CatalogProduct> sorted, CatalogProduct product, Comparator<CatalogProduct> order) {
+        int index = Collections.binarySearch(sorted, product, order);
+        sorted.add(index >= 0 ? index : -index - 1, product);
+    }
+
+    // The product with its current stock, or null when out of stock
+    private CatalogProduct available(CatalogProduct product) {
+        Integer current = stock.get(product.id());
+        if (current == null || current <= 0) {
+            return null;
+        }
+        return current.equals(product.stock()) ? product : product.withStock(current);
+    }
+
+    /**
+     * Get an available product, or null if it is unapproved, out of stock or unknown
+     */
+    public CatalogProduct get(Long id) {
+        CatalogProduct product = byId.get(id);
+        return product == null ? null : available(product);
+    }
+
+    /**
+     * All available products, lowest carbon impact first
+     */
+    public Stream<CatalogProduct> byCarbonImpact() {
+        return byCarbon.stream().map(this::available).filter(Objects::nonNull);
+    }
+
+    /**
+     * All available products, best eco-value score first
+     */
+    public Stream<CatalogProduct> byEcoValue() {
+        return byEcoValue.stream().map(this::available).filter(Objects::nonNull);
+    }
+
+    /**
+     * Approved products, in stock or not
+     */
+    public int size() {
+        return byId.size();
+    }
+}
@@ -0,0 +1,325 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import com.infosys.springboard.ecobazaar.dto.CursorPage;
+import com.infosys.springboard.ecobazaar.dto.FacetedPage;
+import com.infosys.springboard.ecobazaar.dto.PageCursor;
+import com.infosys.springboard.ecobazaar.dto.ProductCard;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap indexes over approved products for the faceted storefront query.
+ * Every product gets a dense slot; each category, eco-rating and the
+ * eco-certified flag has a bitmap of slots. A query ANDs the bitmaps it needs
+ * and then makes a single pass over the candidates to check price and carbon
+ * ranges, count facets and keep the requested page.
+ */
+public class FacetIndex {
+
+    record Hit(CatalogProduct product, BigDecimal key) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<CatalogProduct> slots = new ArrayList<>();
+    private final Map<Long, Integer> slotOf = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final BitSet live = new BitSet();
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final Map<String, BitSet> byEcoRating = new HashMap<>();
+    private final BitSet ecoCertified = new BitSet();
+
+    /**
+     * Replace the whole index (initial load)
+     */
+    void rebuild(Collection<CatalogProduct> products) {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            slotOf.clear();
+            freeSlots.clear();
+            live.clear();
+            byCategory.clear();
+            byEcoRating.clear();
+            ecoCertified.clear();
+            for (CatalogProduct product : products) {
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply one change. A null or unapproved product removes the id from the index.
+     */
+    void update(Long id, CatalogProduct product) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotOf.remove(id);
+            if (slot != null) {
+                CatalogProduct previous = slots.set(slot, null);
+                live.clear(slot);
+                clearBit(byCategory, previous.category(), slot);
+                clearBit(byEcoRating, previous.ecoRating(), slot);
+                ecoCertified.clear(slot);
+                freeSlots.push(slot);
+            }
+            if (product != null) {
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(CatalogProduct product) {
+        if (!Boolean.TRUE.equals(product.approved())) {
+            return;
+        }
+
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = slots.size();
+            slots.add(product);
+        } else {
+            slot = freeSlots.pop();
+            slots.set(slot, product);
+        }
+        slotOf.put(product.id(), slot);
+
+        live.set(slot);
+        if (product.category() != null) {
+            byCategory.computeIfAbsent(product.category(), c -> new BitSet()).set(slot);
+        }
+        if (product.ecoRating() != null) {
+            byEcoRating.computeIfAbsent(product.ecoRating(), r -> new BitSet()).set(slot);
+        }
+        if (Boolean.TRUE.equals(product.ecoCertified())) {
+            ecoCertified.set(slot);
+        }
+    }
+
+    private static void clearBit(Map<String, BitSet> facet, String value, int slot) {
+        BitSet bits = value == null ? null : facet.get(value);
+        if (bits != null) {
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                facet.remove(value);
+            }
+        }
+    }
+
+    /**
+     * One page of products matching the query plus facet counts.
+     * {@code keywordScores} are the search index matches for the keyword, or null when there is none.
+     */
+    public FacetedPage<ProductCard> query(ProductQuery query, Map<Long, BigDecimal> keywordScores,
+                                          PageCursor after, int limit) {
+        ProductQuery.Sort sort = query.sort();
+        Comparator<Hit> ranking = Comparator.comparing(Hit::key);
+        if (sort.descending()) {
+            ranking = ranking.reversed();
+        }
+        ranking = ranking.thenComparing(hit -> hit.product().id());
+        // Keep only the best limit + 1 hits after the cursor; the worst sits at the head
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+
+        Map<String, Long> categoryCounts = new TreeMap<>();
+        Map<String, Long> ecoRatingCounts = new TreeMap<>();
+        long certifiedCount = 0;
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) live.clone();
+            if (keywordScores != null) {
+                BitSet matches = new BitSet();
+                for (Long id : keywordScores.keySet()) {
+                    Integer slot = slotOf.get(id);
+                    if (slot != null) {
+                        matches.set(slot);
+                    }
+                }
+                candidates.and(matches);
+            }
+
+            // Facet filters stay separate so each facet can be counted without its own filter
+            BitSet inCategory = mask(byCategory, query.category());
+            BitSet inEcoRating = mask(byEcoRating, query.ecoRating());
+            BitSet inCertified = Boolean.TRUE.equals(query.ecoCertified()) ? ecoCertified : null;
+
+            if (!query.hasRanges()) {
+                // Without price/carbon ranges the facet counts are bitmap cardinalities,
+                // and only the slots matching every filter are visited
+                countFacet(byCategory, intersect(candidates, null, inEcoRating, inCertified), categoryCounts);
+                countFacet(byEcoRating, intersect(candidates, inCategory, null, inCertified), ecoRatingCounts);
+                certifiedCount = intersect(candidates, inCategory, inEcoRating, ecoCertified).cardinality();
+
+                BitSet matching = intersect(candidates, inCategory, inEcoRating, inCertified);
+                total = matching.cardinality();
+                for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+                    CatalogProduct product = slots.get(slot);
+                    offer(best, new Hit(product, sortKey(sort, product, keywordScores)), after, sort, limit);
+                }
+                return page(best, ranking, limit, total, categoryCounts, ecoRatingCounts, certifiedCount);
+            }
+
+            // Ranges are checked per product. Only slots matching at least two of the
+            // three filters can reach a hit or a facet count, so the scan skips the rest.
+            BitSet relevant = matchingTwoOf(inCategory, inEcoRating, inCertified);
+            if (relevant != null) {
+                candidates.and(relevant);
+            }
+
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                CatalogProduct product = slots.get(slot);
+                if (!query.inRanges(product)) {
+                    continue;
+                }
+
+                boolean category = inCategory == null || inCategory.get(slot);
+                boolean ecoRating = inEcoRating == null || inEcoRating.get(slot);
+                boolean certified = inCertified == null || inCertified.get(slot);
+
+                if (ecoRating && certified && product.category() != null) {
+                    categoryCounts.merge(product.category(), 1L, Long::sum);
+                }
+                if (category && certified && product.ecoRating() != null) {
+                    ecoRatingCounts.merge(product.ecoRating(), 1L, Long::sum);
+                }
+                if (category && ecoRating && ecoCertified.get(slot)) {
+                    certifiedCount++;
+                }
+                if (!(category && ecoRating && certified)) {
+                    continue;
+                }
+
+                total++;
+                offer(best, new Hit(product, sortKey(sort, product, keywordScores)), after, sort, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return page(best, ranking, limit, total, categoryCounts, ecoRatingCounts, certifiedCount);
+    }
+
+    private static void offer(PriorityQueue<Hit> best, Hit hit, PageCursor after, ProductQuery.Sort sort, int limit) {
+        if (isAfter(hit, after, sort)) {
+            best.offer(hit);
+            if (best.size() > limit + 1) {
+                best.poll();
+            }
+        }
+    }
+
+    private static FacetedPage<ProductCard> page(PriorityQueue<Hit> best, Comparator<Hit> ranking, int limit,
+                                                 long total, Map<String, Long> categoryCounts,
+                                                 Map<String, Long> ecoRatingCounts, long certifiedCount) {
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        CursorPage<Hit> page = CursorPage.of(hits, limit, hit -> new PageCursor(hit.key(), hit.product().id()));
+        CursorPage<ProductCard> cards = new CursorPage<>(
+                page.getItems().stream().map(hit -> ProductCard.from(hit.product())).toList(), page.getNext());
+        return new FacetedPage<>(cards, total, categoryCounts, ecoRatingCounts, certifiedCount);
+    }
+
+    // base AND every non-null filter
+    private static BitSet intersect(BitSet base, BitSet a, BitSet b, BitSet c) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet filter : new BitSet[]{a, b, c}) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static void countFacet(Map<String, BitSet> facet, BitSet scope, Map<String, Long> counts) {
+        for (Map.Entry<String, BitSet> value : facet.entrySet()) {
+            BitSet bits = (BitSet) value.getValue().clone();
+            bits.and(scope);
+            int count = bits.cardinality();
+            if (count > 0) {
+                counts.put(value.getKey(), (long) count);
+            }
+        }
+    }
+
+    /**
+     * Slots in at least two of the filters (null = no filter, matches everything),
+     * or null when that is every slot. Built from word-wise AND/OR over the bitmaps.
+     */
+    private static BitSet matchingTwoOf(BitSet a, BitSet b, BitSet c) {
+        List<BitSet> filters = new ArrayList<>(3);
+        for (BitSet filter : new BitSet[]{a, b, c}) {
+            if (filter != null) {
+                filters.add(filter);
+            }
+        }
+        if (filters.size() < 2) {
+            return null;
+        }
+        // Most selective first, so the intermediate sets stay small
+        filters.sort(Comparator.comparingInt(BitSet::cardinality));
+        if (filters.size() == 2) {
+            BitSet either = (BitSet) filters.get(0).clone();
+            either.or(filters.get(1));
+            return either;
+        }
+        BitSet first = filters.get(0);
+        BitSet second = filters.get(1);
+        BitSet third = filters.get(2);
+
+        // (first AND (second OR third)) OR (second AND third)
+        BitSet result = (BitSet) second.clone();
+        result.or(third);
+        result.and(first);
+        BitSet both = (BitSet) second.clone();
+        both.and(third);
+        result.or(both);
+        return result;
+    }
+
+    // null means "no filter"; an unknown value matches nothing
+    private static BitSet mask(Map<String, BitSet> facet, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return facet.getOrDefault(value, new BitSet());
+    }
+
+    private static BigDecimal sortKey(ProductQuery.Sort sort, CatalogProduct product,
+                                      Map<Long, BigDecimal> keywordScores) {
+        BigDecimal key = switch (sort) {
+            case RELEVANCE -> keywordScores.get(product.id());
+            case CARBON_ASC -> product.carbonImpact();
+            case PRICE_ASC, PRICE_DESC -> product.price();
+        };
+        return key != null ? key : BigDecimal.ZERO;
+    }
+
+    private static boolean isAfter(Hit hit, PageCursor after, ProductQuery.Sort sort) {
+        if (after.sortKey() == null) {
+            return true;
+        }
+        int byKey = hit.key().compareTo(after.sortKey());
+        if (sort.descending()) {
+            byKey = -byKey;
+        }
+        return byKey > 0 || (byKey == 0 && hit.product().id() > after.idOrZero());
+    }
+}
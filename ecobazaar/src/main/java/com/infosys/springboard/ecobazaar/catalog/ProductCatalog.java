@@ -0,0 +1,257 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory catalog of approved products used by the recommendation and
+ * search endpoints. Loaded once at startup and then kept current from
+ * {@link ProductChangedEvent}s; reads never touch the database.
+ *
+ * Events only cover changes made on this node. Changes made on other nodes are
+ * picked up by a periodic reload of products whose updated_at moved (stock
+ * UPDATEs set it too), plus a slower sweep for hard-deleted products.
+ */
+@Component
+public class ProductCatalog {
+
+    private static final long RELOAD_INTERVAL_SECONDS = 5;
+    private static final int RELOADS_PER_SWEEP = 12;
+    // Re-read this far behind the last reload: covers transactions that committed
+    // after it with an earlier updated_at, and clock skew between nodes
+    private static final long RELOAD_OVERLAP_SECONDS = 30;
+    private static final long RETRY_BASE_MS = 500;
+    private static final long RETRY_MAX_MS = 30_000;
+
+    private final ProductRepository productRepository;
+
+    // Single refresher thread: bursts of events (e.g. checkouts) are coalesced into one rebuild
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
+
+    // Refresher thread only
+    private int failedRefreshes;
+    private int reloads;
+    private LocalDateTime reloadedUpTo;
+
+    // Every indexed (approved) product as last loaded; guarded by this
+    private final Map<Long, CatalogProduct> known = new HashMap<>();
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+    // Stock of every approved product, shared by all snapshots (see CatalogSnapshot)
+    private final Map<Long, Integer> stock = new ConcurrentHashMap<>();
+    private final CarbonIndex carbonIndex = new CarbonIndex();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final FacetIndex facetIndex = new FacetIndex();
+
+    public ProductCatalog(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Current snapshot. Callers should read it once per request and work on that instance.
+     */
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Per-category carbon-sorted index, updated incrementally
+     */
+    public CarbonIndex carbonIndex() {
+        return carbonIndex;
+    }
+
+    /**
+     * Full-text index over approved products (in stock or not), updated incrementally
+     */
+    public SearchIndex searchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * Facet bitmaps over approved products for the combined storefront query
+     */
+    public FacetIndex facetIndex() {
+        return facetIndex;
+    }
+
+    /**
+     * Initial full load
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        LocalDateTime started = LocalDateTime.now();
+        List<CatalogProduct> products = productRepository.findByApprovedTrue().stream()
+                .map(CatalogProduct::from)
+                .toList();
+        stock.clear();
+        products.forEach(product -> putStock(product.id(), product));
+        snapshot = CatalogSnapshot.of(products, stock);
+        carbonIndex.rebuild(products);
+        searchIndex.rebuild(products);
+        facetIndex.rebuild(products);
+        known.clear();
+        products.forEach(product -> known.put(product.id(), product));
+
+        refresher.execute(() -> reloadedUpTo = started);
+        refresher.scheduleWithFixedDelay(this::reloadQuietly,
+                RELOAD_INTERVAL_SECONDS, RELOAD_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        System.out.println("Product catalog loaded: " + snapshot.size() + " approved products");
+    }
+
+    /**
+     * Queue changed products for reload once the publishing transaction has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pendingIds.addAll(event.productIds());
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.execute(this::refresh);
+        }
+    }
+
+    private void refresh() {
+        refreshScheduled.set(false);
+
+        List<Long> ids = new ArrayList<>(pendingIds);
+        pendingIds.removeAll(ids);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Long, CatalogProduct> reloaded = new HashMap<>();
+            for (Product product : productRepository.findAllById(ids)) {
+                reloaded.put(product.getId(), CatalogProduct.from(product));
+            }
+            apply(ids, reloaded);
+            failedRefreshes = 0;
+        } catch (RuntimeException e) {
+            // Keep the ids and retry with backoff, even if no further event arrives
+            pendingIds.addAll(ids);
+            long delay = Math.min(RETRY_MAX_MS, RETRY_BASE_MS << Math.min(failedRefreshes, 16));
+            failedRefreshes++;
+            System.err.println("Product catalog refresh failed, retrying in " + delay + " ms: " + e.getMessage());
+            if (refreshScheduled.compareAndSet(false, true)) {
+                refresher.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // The watermark did not move, so the next run covers the same window
+            System.err.println("Product catalog reload failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pick up products changed on other nodes since the last reload
+     */
+    void reload() {
+        LocalDateTime started = LocalDateTime.now();
+        Map<Long, CatalogProduct> reloaded = new HashMap<>();
+        for (Product product : productRepository.findByUpdatedAtGreaterThanEqual(
+                reloadedUpTo.minusSeconds(RELOAD_OVERLAP_SECONDS))) {
+            reloaded.put(product.getId(), CatalogProduct.from(product));
+        }
+
+        List<Long> changed = new ArrayList<>();
+        synchronized (this) {
+            reloaded.forEach((id, product) -> {
+                // Approved products must match what is indexed; others only matter if indexed
+                CatalogProduct current = known.get(id);
+                boolean indexed = Boolean.TRUE.equals(product.approved());
+                if (indexed ? !product.equals(current) : current != null) {
+                    changed.add(id);
+                }
+            });
+        }
+
+        // Hard deletes leave no row behind: compare the indexed ids with the approved ones
+        if (++reloads % RELOADS_PER_SWEEP == 0) {
+            Set<Long> approved = new HashSet<>(productRepository.findApprovedIds());
+            synchronized (this) {
+                for (Long id : known.keySet()) {
+                    if (!approved.contains(id) && !reloaded.containsKey(id)) {
+                        changed.add(id);
+                    }
+                }
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            apply(changed, reloaded);
+        }
+        reloadedUpTo = started;
+    }
+
+    // Ids missing from reloaded were deleted or unapproved
+    private synchronized void apply(List<Long> ids, Map<Long, CatalogProduct> reloaded) {
+        // Checkouts only change stock: those products keep their place in the snapshot
+        List<Long> changed = new ArrayList<>();
+        for (Long id : ids) {
+            CatalogProduct product = reloaded.get(id);
+            CatalogProduct previous = known.get(id);
+            putStock(id, product);
+            boolean listed = product != null && Boolean.TRUE.equals(product.approved());
+            if (listed ? previous == null || !product.equals(previous.withStock(product.stock())) : previous != null) {
+                changed.add(id);
+            }
+        }
+        if (!changed.isEmpty()) {
+            snapshot = snapshot.withChanges(changed, reloaded);
+        }
+
+        for (Long id : ids) {
+            CatalogProduct product = reloaded.get(id);
+            carbonIndex.update(id, product);
+            searchIndex.update(id, product);
+            facetIndex.update(id, product);
+            if (product != null && Boolean.TRUE.equals(product.approved())) {
+                known.put(id, product);
+            } else {
+                known.remove(id);
+            }
+        }
+    }
+
+    private void putStock(Long id, CatalogProduct product) {
+        if (product != null && Boolean.TRUE.equals(product.approved()) && product.stock() != null) {
+            stock.put(id, product.stock());
+        } else {
+            stock.remove(id);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,15 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import java.util.List;
+
+/**
+ * Published whenever products are created, edited, approved, deleted or
+ * have their stock changed. Carries ids only; listeners reload the
+ * committed state themselves.
+ */
+public record ProductChangedEvent(List<Long> productIds) {
+
+    public ProductChangedEvent(Long productId) {
+        this(List.of(productId));
+    }
+}
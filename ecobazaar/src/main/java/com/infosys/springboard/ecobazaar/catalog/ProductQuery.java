@@ -0,0 +1,87 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Combined storefront filter for /products/query. Null fields do not filter.
+ */
+public record ProductQuery(
+        String category,
+        String ecoRating,
+        Boolean ecoCertified,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        BigDecimal minCarbon,
+        BigDecimal maxCarbon,
+        String keyword,
+        Sort sort) {
+
+    public enum Sort {
+        RELEVANCE(true),
+        CARBON_ASC(false),
+        PRICE_ASC(false),
+        PRICE_DESC(true);
+
+        private final boolean descending;
+
+        Sort(boolean descending) {
+            this.descending = descending;
+        }
+
+        public boolean descending() {
+            return descending;
+        }
+
+        /**
+         * Parse a request parameter; defaults to relevance for keyword queries, greenest first otherwise
+         */
+        public static Sort parse(String value, boolean hasKeyword) {
+            if (value == null || value.isBlank()) {
+                return hasKeyword ? RELEVANCE : CARBON_ASC;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid sort: " + value);
+            }
+        }
+    }
+
+    public ProductQuery {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        if (minCarbon != null && maxCarbon != null && minCarbon.compareTo(maxCarbon) > 0) {
+            throw new IllegalArgumentException("minCarbon must not exceed maxCarbon");
+        }
+        if (sort == Sort.RELEVANCE && !hasKeyword(keyword)) {
+            throw new IllegalArgumentException("Relevance sort needs a keyword");
+        }
+    }
+
+    public boolean hasKeyword() {
+        return hasKeyword(keyword);
+    }
+
+    private static boolean hasKeyword(String keyword) {
+        return keyword != null && !keyword.isBlank();
+    }
+
+    boolean hasRanges() {
+        return minPrice != null || maxPrice != null || minCarbon != null || maxCarbon != null;
+    }
+
+    boolean inRanges(CatalogProduct product) {
+        return within(product.price(), minPrice, maxPrice)
+                && within(product.carbonImpact(), minCarbon, maxCarbon);
+    }
+
+    private static boolean within(BigDecimal value, BigDecimal min, BigDecimal max) {
+        if (value == null) {
+            return min == null && max == null;
+        }
+        return (min == null || value.compareTo(min) >= 0)
+                && (max == null || value.compareTo(max) <= 0);
+    }
+}
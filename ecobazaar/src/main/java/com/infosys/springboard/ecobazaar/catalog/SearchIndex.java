@@ -0,0 +1,235 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import com.infosys.springboard.ecobazaar.dto.CursorPage;
+import com.infosys.springboard.ecobazaar.dto.PageCursor;
+import com.infosys.springboard.ecobazaar.dto.ProductCard;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inverted index over approved products (name, description, category) for the
+ * storefront search box. Every query term must match (AND), each term matches as
+ * a prefix so partially typed words work, and results are ranked with BM25.
+ * Updated one product at a time by {@link ProductCatalog}; readers are lock-free.
+ */
+public class SearchIndex {
+
+    // BM25 parameters (standard defaults)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // A hit in the name counts more than one in the category or description
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Scores are rounded so they can be carried in a page cursor
+    private static final int SCORE_SCALE = 6;
+
+    record Document(CatalogProduct product, Map<String, Integer> termFrequencies, int length) {}
+
+    record Hit(CatalogProduct product, BigDecimal score) {}
+
+    // term -> (product id -> weighted term frequency), sorted so a prefix is a sub-range
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final AtomicLong totalLength = new AtomicLong();
+
+    /**
+     * Replace the whole index (initial load)
+     */
+    synchronized void rebuild(Collection<CatalogProduct> products) {
+        postings.clear();
+        documents.clear();
+        totalLength.set(0);
+        for (CatalogProduct product : products) {
+            add(product);
+        }
+    }
+
+    /**
+     * Apply one change. A null or unapproved product removes the id from the index.
+     */
+    synchronized void update(Long id, CatalogProduct product) {
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            for (String term : previous.termFrequencies().keySet()) {
+                Map<Long, Integer> docs = postings.get(term);
+                if (docs != null) {
+                    docs.remove(id);
+                    if (docs.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            totalLength.addAndGet(-previous.length());
+        }
+        if (product != null) {
+            add(product);
+        }
+    }
+
+    private void add(CatalogProduct product) {
+        if (!Boolean.TRUE.equals(product.approved())) {
+            return;
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = countTerms(product.name(), NAME_WEIGHT, frequencies)
+                + countTerms(product.category(), CATEGORY_WEIGHT, frequencies)
+                + countTerms(product.description(), DESCRIPTION_WEIGHT, frequencies);
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new ConcurrentHashMap<>())
+                    .put(product.id(), entry.getValue());
+        }
+        documents.put(product.id(), new Document(product, frequencies, length));
+        totalLength.addAndGet(length);
+    }
+
+    private static int countTerms(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> terms = tokenize(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    /**
+     * Lower-cased runs of letters and digits
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Ranked page of products matching every term of the query, best match first.
+     * The cursor carries (score, id) of the last hit of the previous page.
+     */
+    public CursorPage<ProductCard> search(String query, PageCursor after, int limit) {
+        Comparator<Hit> ranking = Comparator.comparing(Hit::score).reversed()
+                .thenComparing(hit -> hit.product().id());
+        // Keep only the best limit + 1 hits after the cursor; the worst sits at the head
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+
+        for (Map.Entry<Long, BigDecimal> match : matchScores(query).entrySet()) {
+            Document document = documents.get(match.getKey());
+            if (document == null) {
+                continue;
+            }
+            Hit hit = new Hit(document.product(), match.getValue());
+            if (isAfter(hit, after)) {
+                best.offer(hit);
+                if (best.size() > limit + 1) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        CursorPage<Hit> page = CursorPage.of(hits, limit, hit -> new PageCursor(hit.score(), hit.product().id()));
+        return new CursorPage<>(page.getItems().stream().map(hit -> ProductCard.from(hit.product())).toList(), page.getNext());
+    }
+
+    /**
+     * BM25 score of every product matching all terms of the query, keyed by product id.
+     * Empty when nothing matches or the query has no terms.
+     */
+    public Map<Long, BigDecimal> matchScores(String query) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        int documentCount = documents.size();
+        if (queryTerms.isEmpty() || documentCount == 0) {
+            return Map.of();
+        }
+        double averageLength = Math.max(1.0, (double) totalLength.get() / documentCount);
+
+        // Score each term separately, then intersect starting from the rarest term
+        List<Map<Long, Double>> termScores = new ArrayList<>();
+        for (String queryTerm : queryTerms) {
+            Map<Long, Double> scores = scoreTerm(queryTerm, documentCount, averageLength);
+            if (scores.isEmpty()) {
+                return Map.of();
+            }
+            termScores.add(scores);
+        }
+        termScores.sort(Comparator.comparingInt(Map::size));
+
+        Map<Long, BigDecimal> matches = new HashMap<>();
+        candidates:
+        for (Map.Entry<Long, Double> candidate : termScores.get(0).entrySet()) {
+            double total = candidate.getValue();
+            for (int i = 1; i < termScores.size(); i++) {
+                Double score = termScores.get(i).get(candidate.getKey());
+                if (score == null) {
+                    continue candidates;
+                }
+                total += score;
+            }
+            matches.put(candidate.getKey(), BigDecimal.valueOf(total).setScale(SCORE_SCALE, RoundingMode.HALF_UP));
+        }
+        return matches;
+    }
+
+    /**
+     * BM25 score of every document containing a term that starts with the query term.
+     * When several indexed terms share the prefix, a document keeps its best one.
+     */
+    private Map<Long, Double> scoreTerm(String queryTerm, int documentCount, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> posting
+                : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            Map<Long, Integer> docs = posting.getValue();
+            int documentFrequency = docs.size();
+            double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+            for (Map.Entry<Long, Integer> doc : docs.entrySet()) {
+                Document document = documents.get(doc.getKey());
+                if (document == null) {
+                    continue;
+                }
+                int tf = doc.getValue();
+                double norm = K1 * (1 - B + B * document.length() / averageLength);
+                double score = idf * tf * (K1 + 1) / (tf + norm);
+                scores.merge(doc.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    // Hits are ordered by score descending, then id ascending
+    private static boolean isAfter(Hit hit, PageCursor after) {
+        if (after.sortKey() == null) {
+            return true;
+        }
+        int byScore = hit.score().compareTo(after.sortKey());
+        return byScore < 0 || (byScore == 0 && hit.product().id() > after.idOrZero());
+    }
+}
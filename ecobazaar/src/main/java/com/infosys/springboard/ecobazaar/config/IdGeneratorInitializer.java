@@ -0,0 +1,55 @@
+package com.infosys.springboard.ecobazaar.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Orders, order items and cart items take ids from the id_generators table in
+ * blocks of {@link #ALLOCATION_SIZE} (pooled optimizer), so Hibernate can batch
+ * their inserts. Rows inserted before that used AUTO_INCREMENT, so before the
+ * server takes requests each generator is moved past its table's highest id.
+ */
+@Component
+public class IdGeneratorInitializer {
+
+    // allocationSize of the entities' @TableGenerator
+    public static final int ALLOCATION_SIZE = 50;
+
+    // One row per generator (pkColumnValue) from the table it hands out ids for. ON DUPLICATE
+    // KEY UPDATE reads the derived table's columns, rather than the deprecated VALUES().
+    private static final String MOVE_PAST_MAX_IDS = "INSERT INTO id_generators (name, next_val) " +
+            "SELECT * FROM (" +
+            "SELECT 'orders' AS name, COALESCE(MAX(id), 0) + :gap AS next_val FROM orders " +
+            "UNION ALL SELECT 'order_items', COALESCE(MAX(id), 0) + :gap FROM order_items " +
+            "UNION ALL SELECT 'cart_items', COALESCE(MAX(id), 0) + :gap FROM cart_items" +
+            ") AS n " +
+            "ON DUPLICATE KEY UPDATE next_val = GREATEST(id_generators.next_val, n.next_val)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public IdGeneratorInitializer(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The pooled optimizer hands out (next_val - ALLOCATION_SIZE, next_val] for a stored
+     * next_val, so next_val must be at least MAX(id) + ALLOCATION_SIZE + 1
+     */
+    @PostConstruct
+    public void initialize() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("CREATE TABLE IF NOT EXISTS id_generators " +
+                    "(name VARCHAR(255) NOT NULL PRIMARY KEY, next_val BIGINT)").executeUpdate();
+            entityManager.createNativeQuery(MOVE_PAST_MAX_IDS)
+                    .setParameter("gap", ALLOCATION_SIZE + 1)
+                    .executeUpdate();
+        });
+    }
+}
@@ -1,8 +1,8 @@
 package com.infosys.springboard.ecobazaar.controller;
 
 import com.infosys.springboard.ecobazaar.entity.User;
-import com.infosys.springboard.ecobazaar.repository.UserRepository;
-import com.infosys.springboard.ecobazaar.security.JwtUtil;
+import com.infosys.springboard.ecobazaar.security.AuthenticatedUser;
+import com.infosys.springboard.ecobazaar.security.CurrentUser;
 import com.infosys.springboard.ecobazaar.service.AdminService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,31 +19,18 @@ import java.util.stream.Collectors;
 public class AdminController {
 
     private final AdminService adminService;
-    private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
 
-    public AdminController(AdminService adminService,
-                          UserRepository userRepository,
-                          JwtUtil jwtUtil) {
+    public AdminController(AdminService adminService) {
         this.adminService = adminService;
-        this.userRepository = userRepository;
-        this.jwtUtil = jwtUtil;
     }
 
     /**
      * Helper method to verify admin access
      */
-    private User verifyAdminAccess(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        String email = jwtUtil.extractEmail(token);
-        User admin = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!"ADMIN".equalsIgnoreCase(admin.getRole())) {
+    private void verifyAdminAccess(AuthenticatedUser admin) {
+        if (!admin.hasRole("ADMIN")) {
             throw new RuntimeException("Admin access required");
         }
-
-        return admin;
     }
 
     /**
@@ -66,9 +53,9 @@ public class AdminController {
      * Get all users (ADMIN only)
      */
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getAllUsers(@CurrentUser AuthenticatedUser admin) {
         try {
-            verifyAdminAccess(authHeader);
+            verifyAdminAccess(admin);
             List<User> users = adminService.getAllUsers();
             List<Map<String, Object>> response = users.stream()
                     .map(this::userToResponse)
@@ -85,9 +72,9 @@ public class AdminController {
     @GetMapping("/users/role/{role}")
     public ResponseEntity<?> getUsersByRole(
             @PathVariable String role,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser admin) {
         try {
-            verifyAdminAccess(authHeader);
+            verifyAdminAccess(admin);
             List<User> users = adminService.getUsersByRole(role);
             List<Map<String, Object>> response = users.stream()
                     .map(this::userToResponse)
@@ -102,9 +89,9 @@ public class AdminController {
      * Get all sellers (ADMIN only)
      */
     @GetMapping("/sellers")
-    public ResponseEntity<?> getAllSellers(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getAllSellers(@CurrentUser AuthenticatedUser admin) {
         try {
-            verifyAdminAccess(authHeader);
+            verifyAdminAccess(admin);
             List<User> sellers = adminService.getAllSellers();
             List<Map<String, Object>> response = sellers.stream()
                     .map(this::userToResponse)
@@ -119,9 +106,9 @@ public class AdminController {
      * Get all regular users (ADMIN only)
      */
     @GetMapping("/regular-users")
-    public ResponseEntity<?> getRegularUsers(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getRegularUsers(@CurrentUser AuthenticatedUser admin) {
         try {
-            verifyAdminAccess(authHeader);
+            verifyAdminAccess(admin);
             List<User> users = adminService.getAllRegularUsers();
             List<Map<String, Object>> response = users.stream()
                     .map(this::userToResponse)
@@ -136,9 +123,9 @@ public class AdminController {
      * Get banned users (ADMIN only)
      */
     @GetMapping("/users/banned")
-    public ResponseEntity<?> getBannedUsers(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getBannedUsers(@CurrentUser AuthenticatedUser admin) {
         try {
-            verifyAdminAccess(authHeader);
+            verifyAdminAccess(admin);
             List<User> users = adminService.getBannedUsers();
             List<Map<String, Object>> response = users.stream()
                     .map(this::userToResponse)
@@ -153,9 +140,9 @@ public class AdminController {
      * Get user statistics (ADMIN only)
      */
     @GetMapping("/statistics")
-    public ResponseEntity<?> getUserStatistics(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getUserStatistics(@CurrentUser AuthenticatedUser admin) {
         try {
-            verifyAdminAccess(authHeader);
+            verifyAdminAccess(admin);
             Map<String, Object> stats = adminService.getUserStatistics();
             return ResponseEntity.ok(stats);
         } catch (RuntimeException e) {
@@ -169,9 +156,9 @@ public class AdminController {
     @PutMapping("/users/{userId}/ban")
     public ResponseEntity<?> banUser(
             @PathVariable Long userId,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser admin) {
         try {
-            verifyAdminAccess(authHeader);
+            verifyAdminAccess(admin);
             User user = adminService.banUser(userId);
             return ResponseEntity.ok(userToResponse(user));
         } catch (RuntimeException e) {
@@ -185,9 +172,9 @@ public class AdminController {
     @PutMapping("/users/{userId}/unban")
     public ResponseEntity<?> unbanUser(
             @PathVariable Long userId,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser admin) {
         try {
-            verifyAdminAccess(authHeader);
+            verifyAdminAccess(admin);
             User user = adminService.unbanUser(userId);
             return ResponseEntity.ok(userToResponse(user));
         } catch (RuntimeException e) {
@@ -201,9 +188,9 @@ public class AdminController {
     @DeleteMapping("/users/{userId}")
     public ResponseEntity<?> deleteUser(
             @PathVariable Long userId,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser admin) {
         try {
-            verifyAdminAccess(authHeader);
+            verifyAdminAccess(admin);
             adminService.deleteUser(userId);
             
             Map<String, String> response = new HashMap<>();
@@ -74,7 +74,7 @@ public class AuthController {
             throw new RuntimeException("Your account has been banned. Please contact support.");
         }
 
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole());
         
         Map<String, Object> response = new HashMap<>();
         response.put("token", token);
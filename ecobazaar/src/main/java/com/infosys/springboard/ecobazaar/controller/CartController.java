@@ -1,15 +1,16 @@
 package com.infosys.springboard.ecobazaar.controller;
 
+import com.infosys.springboard.ecobazaar.dto.CartOperation;
 import com.infosys.springboard.ecobazaar.entity.Cart;
 import com.infosys.springboard.ecobazaar.entity.User;
-import com.infosys.springboard.ecobazaar.repository.UserRepository;
-import com.infosys.springboard.ecobazaar.security.JwtUtil;
+import com.infosys.springboard.ecobazaar.security.CurrentUser;
 import com.infosys.springboard.ecobazaar.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,29 +21,12 @@ public class CartController {
     @Autowired
     private CartService cartService;
 
-    @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private JwtUtil jwtUtil;
-
-    /**
-     * Helper method to get user from token
-     */
-    private User getUserFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        String email = jwtUtil.extractEmail(token);
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
     /**
      * Get user's cart
      */
     @GetMapping
-    public ResponseEntity<?> getCart(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getCart(@CurrentUser User user) {
         try {
-            User user = getUserFromToken(authHeader);
             Cart cart = cartService.getOrCreateCart(user);
             return ResponseEntity.ok(cart);
         } catch (Exception e) {
@@ -57,10 +41,8 @@ public class CartController {
     @PostMapping("/items")
     public ResponseEntity<?> addToCart(
             @RequestBody Map<String, Object> request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser User user) {
         try {
-            User user = getUserFromToken(authHeader);
-            
             Long productId = Long.valueOf(request.get("productId").toString());
             Integer quantity = Integer.valueOf(request.get("quantity").toString());
 
@@ -82,9 +64,8 @@ public class CartController {
     public ResponseEntity<?> updateCartItem(
             @PathVariable Long cartItemId,
             @RequestBody Map<String, Integer> request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser User user) {
         try {
-            User user = getUserFromToken(authHeader);
             Integer quantity = request.get("quantity");
 
             if (quantity == null) {
@@ -106,9 +87,8 @@ public class CartController {
     @DeleteMapping("/items/{cartItemId}")
     public ResponseEntity<?> removeFromCart(
             @PathVariable Long cartItemId,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser User user) {
         try {
-            User user = getUserFromToken(authHeader);
             Cart cart = cartService.removeFromCart(user, cartItemId);
             return ResponseEntity.ok(cart);
         } catch (Exception e) {
@@ -117,13 +97,28 @@ public class CartController {
         }
     }
 
+    /**
+     * Apply a batch of add / set-quantity / remove operations in one request
+     */
+    @PatchMapping
+    public ResponseEntity<?> applyCartOperations(
+            @RequestBody List<CartOperation> operations,
+            @CurrentUser User user) {
+        try {
+            Cart cart = cartService.applyOperations(user, operations);
+            return ResponseEntity.ok(cart);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Clear cart
      */
     @DeleteMapping
-    public ResponseEntity<?> clearCart(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> clearCart(@CurrentUser User user) {
         try {
-            User user = getUserFromToken(authHeader);
             Cart cart = cartService.clearCart(user);
             return ResponseEntity.ok(cart);
         } catch (Exception e) {
@@ -136,9 +131,8 @@ public class CartController {
      * Get cart item count
      */
     @GetMapping("/count")
-    public ResponseEntity<?> getCartItemCount(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getCartItemCount(@CurrentUser User user) {
         try {
-            User user = getUserFromToken(authHeader);
             Integer count = cartService.getCartItemCount(user);
             return ResponseEntity.ok(Map.of("count", count));
         } catch (Exception e) {
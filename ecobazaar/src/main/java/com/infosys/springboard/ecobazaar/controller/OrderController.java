@@ -2,8 +2,8 @@ package com.infosys.springboard.ecobazaar.controller;
 
 import com.infosys.springboard.ecobazaar.entity.Order;
 import com.infosys.springboard.ecobazaar.entity.User;
-import com.infosys.springboard.ecobazaar.repository.UserRepository;
-import com.infosys.springboard.ecobazaar.security.JwtUtil;
+import com.infosys.springboard.ecobazaar.security.AuthenticatedUser;
+import com.infosys.springboard.ecobazaar.security.CurrentUser;
 import com.infosys.springboard.ecobazaar.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -21,29 +21,12 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
-    @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private JwtUtil jwtUtil;
-
-    /**
-     * Helper method to get user from token
-     */
-    private User getUserFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        String email = jwtUtil.extractEmail(token);
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
     /**
      * Create order from cart (Checkout)
      */
     @PostMapping
-    public ResponseEntity<?> createOrder(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> createOrder(@CurrentUser User user) {
         try {
-            User user = getUserFromToken(authHeader);
             Order order = orderService.createOrderFromCart(user);
             return ResponseEntity.status(HttpStatus.CREATED).body(order);
         } catch (Exception e) {
@@ -56,10 +39,9 @@ public class OrderController {
      * Get user's orders
      */
     @GetMapping("/my-orders")
-    public ResponseEntity<?> getMyOrders(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getMyOrders(@CurrentUser AuthenticatedUser user) {
         try {
-            User user = getUserFromToken(authHeader);
-            List<Order> orders = orderService.getUserOrders(user.getId());
+            List<Order> orders = orderService.getUserOrders(user.id());
             return ResponseEntity.ok(orders);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -73,10 +55,9 @@ public class OrderController {
     @GetMapping("/{orderId}")
     public ResponseEntity<?> getOrderById(
             @PathVariable Long orderId,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser user) {
         try {
-            User user = getUserFromToken(authHeader);
-            Order order = orderService.getOrderById(orderId, user.getId());
+            Order order = orderService.getOrderById(orderId, user.id());
             return ResponseEntity.ok(order);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -90,10 +71,9 @@ public class OrderController {
     @PutMapping("/{orderId}/cancel")
     public ResponseEntity<?> cancelOrder(
             @PathVariable Long orderId,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser user) {
         try {
-            User user = getUserFromToken(authHeader);
-            Order order = orderService.cancelOrder(orderId, user.getId());
+            Order order = orderService.cancelOrder(orderId, user.id());
             return ResponseEntity.ok(order);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -105,10 +85,9 @@ public class OrderController {
      * Get total carbon impact for user
      */
     @GetMapping("/my-carbon-impact")
-    public ResponseEntity<?> getMyCarbonImpact(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getMyCarbonImpact(@CurrentUser AuthenticatedUser user) {
         try {
-            User user = getUserFromToken(authHeader);
-            Double totalCarbon = orderService.calculateTotalCarbonImpact(user.getId());
+            Double totalCarbon = orderService.calculateTotalCarbonImpact(user.id());
             return ResponseEntity.ok(Map.of(
                     "totalCarbonImpact", totalCarbon,
                     "unit", "kg CO₂e"
@@ -123,11 +102,9 @@ public class OrderController {
      * Get all orders (ADMIN)
      */
     @GetMapping("/admin/all")
-    public ResponseEntity<?> getAllOrders(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getAllOrders(@CurrentUser AuthenticatedUser admin) {
         try {
-            User admin = getUserFromToken(authHeader);
-
-            if (!"ADMIN".equalsIgnoreCase(admin.getRole())) {
+            if (!admin.hasRole("ADMIN")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Admin access required"));
             }
@@ -147,11 +124,9 @@ public class OrderController {
     public ResponseEntity<?> updateOrderStatus(
             @PathVariable Long orderId,
             @RequestBody Map<String, String> request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser admin) {
         try {
-            User admin = getUserFromToken(authHeader);
-
-            if (!"ADMIN".equalsIgnoreCase(admin.getRole())) {
+            if (!admin.hasRole("ADMIN")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Admin access required"));
             }
@@ -176,12 +151,10 @@ public class OrderController {
      * Get seller's orders
      */
     @GetMapping("/seller/my-orders")
-    public ResponseEntity<?> getSellerOrders(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getSellerOrders(@CurrentUser AuthenticatedUser seller) {
         try {
-            User seller = getUserFromToken(authHeader);
-            
             // Robust role validation
-            String userRole = seller.getRole();
+            String userRole = seller.role();
             if (userRole == null || userRole.trim().isEmpty()) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Access denied: No role assigned to user"));
@@ -192,7 +165,7 @@ public class OrderController {
                         .body(Map.of("error", "Access denied: Seller access required. Your role: " + userRole));
             }
 
-            List<Order> orders = orderService.getSellerOrders(seller.getId());
+            List<Order> orders = orderService.getSellerOrders(seller.id());
             return ResponseEntity.ok(orders);
         } catch (Exception e) {
             e.printStackTrace();
@@ -208,12 +181,10 @@ public class OrderController {
     public ResponseEntity<?> updateOrderStatusBySeller(
             @PathVariable Long orderId,
             @RequestBody Map<String, String> request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser seller) {
         try {
-            User seller = getUserFromToken(authHeader);
-
             // Robust role validation
-            String userRole = seller.getRole();
+            String userRole = seller.role();
             if (userRole == null || !"SELLER".equalsIgnoreCase(userRole.trim())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Access denied: Seller access required"));
@@ -222,7 +193,7 @@ public class OrderController {
             String statusStr = request.get("status");
             Order.OrderStatus status = Order.OrderStatus.valueOf(statusStr);
 
-            Order order = orderService.updateOrderStatusBySeller(orderId, seller.getId(), status);
+            Order order = orderService.updateOrderStatusBySeller(orderId, seller.id(), status);
             return ResponseEntity.ok(order);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -242,9 +213,8 @@ public class OrderController {
     public ResponseEntity<?> requestReturn(
             @PathVariable Long orderId,
             @RequestBody Map<String, String> request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser user) {
         try {
-            User user = getUserFromToken(authHeader);
             String reason = request.get("reason");
 
             if (reason == null || reason.trim().isEmpty()) {
@@ -252,7 +222,7 @@ public class OrderController {
                         .body(Map.of("error", "Return reason is required"));
             }
 
-            Order order = orderService.requestReturn(orderId, user.getId(), reason);
+            Order order = orderService.requestReturn(orderId, user.id(), reason);
             return ResponseEntity.ok(order);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -266,18 +236,16 @@ public class OrderController {
     @PutMapping("/seller/{orderId}/return/approve")
     public ResponseEntity<?> approveReturn(
             @PathVariable Long orderId,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser seller) {
         try {
-            User seller = getUserFromToken(authHeader);
-
             // Robust role validation
-            String userRole = seller.getRole();
+            String userRole = seller.role();
             if (userRole == null || !"SELLER".equalsIgnoreCase(userRole.trim())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Access denied: Seller access required"));
             }
 
-            Order order = orderService.approveReturn(orderId, seller.getId());
+            Order order = orderService.approveReturn(orderId, seller.id());
             return ResponseEntity.ok(order);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -291,18 +259,16 @@ public class OrderController {
     @PutMapping("/seller/{orderId}/return/reject")
     public ResponseEntity<?> rejectReturn(
             @PathVariable Long orderId,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser seller) {
         try {
-            User seller = getUserFromToken(authHeader);
-
             // Robust role validation
-            String userRole = seller.getRole();
+            String userRole = seller.role();
             if (userRole == null || !"SELLER".equalsIgnoreCase(userRole.trim())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Access denied: Seller access required"));
             }
 
-            Order order = orderService.rejectReturn(orderId, seller.getId());
+            Order order = orderService.rejectReturn(orderId, seller.id());
             return ResponseEntity.ok(order);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
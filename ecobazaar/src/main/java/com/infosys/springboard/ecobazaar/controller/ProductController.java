@@ -1,9 +1,11 @@
 package com.infosys.springboard.ecobazaar.controller;
 
+import com.infosys.springboard.ecobazaar.catalog.ProductQuery;
+import com.infosys.springboard.ecobazaar.dto.ProductCard;
 import com.infosys.springboard.ecobazaar.entity.Product;
-import com.infosys.springboard.ecobazaar.entity.User;
-import com.infosys.springboard.ecobazaar.repository.UserRepository;
-import com.infosys.springboard.ecobazaar.security.JwtUtil;
+import com.infosys.springboard.ecobazaar.inventory.FlashSaleStock;
+import com.infosys.springboard.ecobazaar.security.AuthenticatedUser;
+import com.infosys.springboard.ecobazaar.security.CurrentUser;
 import com.infosys.springboard.ecobazaar.service.ProductService;
 import com.infosys.springboard.ecobazaar.service.RecommendationService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,37 +29,22 @@ public class ProductController {
     private RecommendationService recommendationService;
 
     @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private JwtUtil jwtUtil;
-
-    /**
-     * Helper method to get user from token
-     */
-    private User getUserFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        String email = jwtUtil.extractEmail(token);
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
+    private FlashSaleStock flashSaleStock;
 
     /*
     Create a new product (for SELLER only)
     */
     @PostMapping
     public ResponseEntity<?> createProduct(@RequestBody Product product, 
-                                           @RequestHeader("Authorization") String authHeader) {
+                                           @CurrentUser AuthenticatedUser seller) {
         try {
-            User seller = getUserFromToken(authHeader);
-
             // Only SELLER can create products
-            if (!"SELLER".equalsIgnoreCase(seller.getRole())) {
+            if (!seller.hasRole("SELLER")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body("Only sellers can create products");
             }
 
-            Product createdProduct = productService.createProduct(product, seller.getId());
+            Product createdProduct = productService.createProduct(product, seller.id());
             return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -65,88 +52,160 @@ public class ProductController {
     }
 
     /**
-     * Get all approved products (PUBLIC)
+     * Get approved products (PUBLIC)
+     * Listing endpoints are keyset-paginated: pass the previous page's "next" as cursor.
      */
     @GetMapping("/approved")
-    public ResponseEntity<List<Product>> getApprovedProducts() {
-        List<Product> products = productService.getApprovedProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getApprovedProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.getApprovedProducts(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
      * Search products by keyword (PUBLIC)
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword) {
-        List<Product> products = productService.searchProducts(keyword);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.searchProducts(keyword, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Combined storefront query (PUBLIC): any mix of facet filters, ranges and keyword,
+     * one page of results plus facet counts.
+     * sort: relevance | carbon_asc | price_asc | price_desc
+     */
+    @GetMapping("/query")
+    public ResponseEntity<?> queryProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String ecoRating,
+            @RequestParam(required = false) Boolean ecoCertified,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) BigDecimal minCarbon,
+            @RequestParam(required = false) BigDecimal maxCarbon,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            boolean hasKeyword = keyword != null && !keyword.isBlank();
+            ProductQuery query = new ProductQuery(category, ecoRating, ecoCertified,
+                    minPrice, maxPrice, minCarbon, maxCarbon, keyword,
+                    ProductQuery.Sort.parse(sort, hasKeyword));
+            return ResponseEntity.ok(productService.queryProducts(query, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
      * Get products by category (PUBLIC)
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
-        List<Product> products = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.getProductsByCategory(category, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
      * Filter by eco-rating (PUBLIC)
      */
     @GetMapping("/filter/eco-rating")
-    public ResponseEntity<List<Product>> getProductsByEcoRating(@RequestParam String rating) {
-        List<Product> products = productService.getProductsByEcoRating(rating);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getProductsByEcoRating(
+            @RequestParam String rating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.getProductsByEcoRating(rating, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
      * Get eco-certified products (PUBLIC)
      */
     @GetMapping("/eco-certified")
-    public ResponseEntity<List<Product>> getEcoCertifiedProducts() {
-        List<Product> products = productService.getEcoCertifiedProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getEcoCertifiedProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.getEcoCertifiedProducts(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
      * Get products sorted by carbon impact (PUBLIC)
      */
     @GetMapping("/eco-sorted")
-    public ResponseEntity<List<Product>> getProductsSortedByCarbonImpact() {
-        List<Product> products = productService.getProductsSortedByCarbonImpact();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getProductsSortedByCarbonImpact(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.getProductsSortedByCarbonImpact(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
      * Filter by price range (PUBLIC)
      */
     @GetMapping("/filter/price")
-    public ResponseEntity<List<Product>> getProductsByPriceRange(
+    public ResponseEntity<?> getProductsByPriceRange(
             @RequestParam BigDecimal min,
-            @RequestParam BigDecimal max) {
-        List<Product> products = productService.getProductsByPriceRange(min, max);
-        return ResponseEntity.ok(products);
+            @RequestParam BigDecimal max,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.getProductsByPriceRange(min, max, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
      * Filter by max carbon impact (PUBLIC)
      */
     @GetMapping("/filter/carbon")
-    public ResponseEntity<List<Product>> getProductsByMaxCarbonImpact(
-            @RequestParam BigDecimal max) {
-        List<Product> products = productService.getProductsByMaxCarbonImpact(max);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getProductsByMaxCarbonImpact(
+            @RequestParam BigDecimal max,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.getProductsByMaxCarbonImpact(max, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
     /**
      * Get seller's own products (SELLER only)
      */
     @GetMapping("/my-products")
-    public ResponseEntity<?> getMyProducts(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getMyProducts(@CurrentUser AuthenticatedUser seller) {
         try {
-            User seller = getUserFromToken(authHeader);
-            List<Product> products = productService.getProductsBySellerId(seller.getId());
+            List<ProductCard> products = productService.getProductsBySellerId(seller.id());
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -160,10 +219,9 @@ public class ProductController {
     public ResponseEntity<?> updateProduct(
             @PathVariable Long id,
             @RequestBody Product product,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser seller) {
         try {
-            User seller = getUserFromToken(authHeader);
-            Product updatedProduct = productService.updateProduct(id, product, seller.getId());
+            Product updatedProduct = productService.updateProduct(id, product, seller.id());
             return ResponseEntity.ok(updatedProduct);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
@@ -177,10 +235,9 @@ public class ProductController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long id, 
-                                           @RequestHeader("Authorization") String authHeader) {
+                                           @CurrentUser AuthenticatedUser seller) {
         try {
-            User seller = getUserFromToken(authHeader);
-            productService.deleteProduct(id, seller.getId());
+            productService.deleteProduct(id, seller.id());
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
@@ -193,15 +250,13 @@ public class ProductController {
      * Get all products including unapproved (ADMIN only)
      */
     @GetMapping("/admin/all")
-    public ResponseEntity<?> getAllProducts(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getAllProducts(@CurrentUser AuthenticatedUser admin) {
         try {
-            User admin = getUserFromToken(authHeader);
-
-            if (!"ADMIN".equalsIgnoreCase(admin.getRole())) {
+            if (!admin.hasRole("ADMIN")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
             }
 
-            List<Product> products = productService.getAllProducts();
+            List<ProductCard> products = productService.getAllProducts();
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -212,15 +267,13 @@ public class ProductController {
      * Get pending products (ADMIN only)
      */
     @GetMapping("/admin/pending")
-    public ResponseEntity<?> getPendingProducts(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getPendingProducts(@CurrentUser AuthenticatedUser admin) {
         try {
-            User admin = getUserFromToken(authHeader);
-
-            if (!"ADMIN".equalsIgnoreCase(admin.getRole())) {
+            if (!admin.hasRole("ADMIN")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
             }
 
-            List<Product> products = productService.getPendingProducts();
+            List<ProductCard> products = productService.getPendingProducts();
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
@@ -232,11 +285,9 @@ public class ProductController {
      */
     @PutMapping("/admin/{id}/approve")
     public ResponseEntity<?> approveProduct(@PathVariable Long id, 
-                                            @RequestHeader("Authorization") String authHeader) {
+                                            @CurrentUser AuthenticatedUser admin) {
         try {
-            User admin = getUserFromToken(authHeader);
-
-            if (!"ADMIN".equalsIgnoreCase(admin.getRole())) {
+            if (!admin.hasRole("ADMIN")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
             }
 
@@ -252,11 +303,9 @@ public class ProductController {
      */
     @PutMapping("/admin/{id}/unapprove")
     public ResponseEntity<?> unapproveProduct(@PathVariable Long id, 
-                                              @RequestHeader("Authorization") String authHeader) {
+                                              @CurrentUser AuthenticatedUser admin) {
         try {
-            User admin = getUserFromToken(authHeader);
-
-            if (!"ADMIN".equalsIgnoreCase(admin.getRole())) {
+            if (!admin.hasRole("ADMIN")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
             }
 
@@ -274,11 +323,9 @@ public class ProductController {
     public ResponseEntity<?> setEcoCertification(
             @PathVariable Long id,
             @RequestParam boolean certified,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser AuthenticatedUser admin) {
         try {
-            User admin = getUserFromToken(authHeader);
-
-            if (!"ADMIN".equalsIgnoreCase(admin.getRole())) {
+            if (!admin.hasRole("ADMIN")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
             }
 
@@ -289,12 +336,53 @@ public class ProductController {
         }
     }
 
+    /**
+     * Turn flash-sale checkout on or off for a hot product (ADMIN only)
+     */
+    @PutMapping("/admin/{id}/flash-sale")
+    public ResponseEntity<?> setFlashSale(
+            @PathVariable Long id,
+            @RequestParam boolean enabled,
+            @CurrentUser AuthenticatedUser admin) {
+        try {
+            if (!admin.hasRole("ADMIN")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+            }
+
+            if (enabled) {
+                int available = flashSaleStock.enable(id);
+                return ResponseEntity.ok(Map.of("productId", id, "flashSale", true, "available", available));
+            }
+            // Ends in the background once no node can still be selling from its leases
+            flashSaleStock.disable(id);
+            return ResponseEntity.accepted().body(Map.of("productId", id, "flashSale", false));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Units left per active flash-sale product, over all nodes (ADMIN only)
+     */
+    @GetMapping("/admin/flash-sale")
+    public ResponseEntity<?> getFlashSales(@CurrentUser AuthenticatedUser admin) {
+        try {
+            if (!admin.hasRole("ADMIN")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+            }
+
+            return ResponseEntity.ok(flashSaleStock.available());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     /**
      * Get greener alternatives for a product (PUBLIC)
      */
     @GetMapping("/{id}/alternatives")
-    public ResponseEntity<List<Product>> getGreenerAlternatives(@PathVariable Long id) {
-        List<Product> alternatives = recommendationService.getGreenerAlternatives(id);
+    public ResponseEntity<List<ProductCard>> getGreenerAlternatives(@PathVariable Long id) {
+        List<ProductCard> alternatives = recommendationService.getGreenerAlternatives(id);
         return ResponseEntity.ok(alternatives);
     }
 
@@ -315,9 +403,9 @@ public class ProductController {
      * Get eco-friendly recommendations (PUBLIC)
      */
     @GetMapping("/recommendations/eco-friendly")
-    public ResponseEntity<List<Product>> getEcoFriendlyRecommendations(
+    public ResponseEntity<List<ProductCard>> getEcoFriendlyRecommendations(
             @RequestParam(defaultValue = "10") int limit) {
-        List<Product> recommendations = recommendationService.getEcoFriendlyRecommendations(limit);
+        List<ProductCard> recommendations = recommendationService.getEcoFriendlyRecommendations(limit);
         return ResponseEntity.ok(recommendations);
     }
 
@@ -325,10 +413,10 @@ public class ProductController {
      * Get similar products (PUBLIC)
      */
     @GetMapping("/{id}/similar")
-    public ResponseEntity<List<Product>> getSimilarProducts(
+    public ResponseEntity<List<ProductCard>> getSimilarProducts(
             @PathVariable Long id,
             @RequestParam(defaultValue = "5") int limit) {
-        List<Product> similar = recommendationService.getSimilarProducts(id, limit);
+        List<ProductCard> similar = recommendationService.getSimilarProducts(id, limit);
         return ResponseEntity.ok(similar);
     }
 
@@ -336,10 +424,10 @@ public class ProductController {
      * Get best eco-value products (PUBLIC)
      */
     @GetMapping("/recommendations/best-eco-value")
-    public ResponseEntity<List<Product>> getBestEcoValueProducts(
+    public ResponseEntity<List<ProductCard>> getBestEcoValueProducts(
             @RequestParam(required = false) String category,
             @RequestParam(defaultValue = "10") int limit) {
-        List<Product> products = recommendationService.getBestEcoValueProducts(category, limit);
+        List<ProductCard> products = recommendationService.getBestEcoValueProducts(category, limit);
         return ResponseEntity.ok(products);
     }
 
@@ -1,56 +1,285 @@
 package com.infosys.springboard.ecobazaar.controller;
 
+import com.infosys.springboard.ecobazaar.dto.RangeReport;
 import com.infosys.springboard.ecobazaar.dto.SellerSalesReportDTO;
 import com.infosys.springboard.ecobazaar.dto.UserPurchaseReportDTO;
+import com.infosys.springboard.ecobazaar.report.PdfRenderPool;
+import com.infosys.springboard.ecobazaar.report.ReportCache;
+import com.infosys.springboard.ecobazaar.report.ReportExportWriter;
+import com.infosys.springboard.ecobazaar.report.ReportPdfWriter;
+import com.infosys.springboard.ecobazaar.security.AuthenticatedUser;
+import com.infosys.springboard.ecobazaar.security.CurrentUser;
 import com.infosys.springboard.ecobazaar.service.ReportService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 @RestController
 @RequestMapping("/api/reports")
 @CrossOrigin(origins = "http://localhost:5173")
 public class ReportController {
 
+    private static final String FORBIDDEN_MESSAGE = "You can only access your own reports";
+
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportCache reportCache;
+
+    @Autowired
+    private ReportPdfWriter reportPdfWriter;
+
+    @Autowired
+    private ReportExportWriter reportExportWriter;
+
+    @Autowired
+    private PdfRenderPool pdfRenderPool;
+
     /**
-     * Get user purchase report - items BOUGHT by user
+     * Get user purchase report - items BOUGHT by user.
+     * The item list is only filled when includeItems=true.
      */
     @GetMapping("/user/{userId}/purchases")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<UserPurchaseReportDTO> getUserPurchaseReport(
+    public ResponseEntity<?> getUserPurchaseReport(
             @PathVariable Long userId,
-            @RequestParam(required = false) String month) {
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "false") boolean includeItems,
+            @CurrentUser AuthenticatedUser user) {
+        if (!isOwnerOrAdmin(user, userId)) {
+            return forbidden();
+        }
 
         if (month == null || month.trim().isEmpty()) {
             month = getCurrentMonth();
         }
 
-        UserPurchaseReportDTO report = reportService.generateUserPurchaseReport(userId, month);
-        return ResponseEntity.ok(report);
+        String reportMonth = month;
+        UserPurchaseReportDTO report = reportCache.get(ReportCache.Kind.USER_PURCHASES, userId, month,
+                () -> reportService.generateUserPurchaseReport(userId, reportMonth, false));
+        return ResponseEntity.ok(includeItems ? reportService.withItemsBought(report) : report);
     }
 
     /**
-     * Get seller sales report - items SOLD by seller
+     * Get seller sales report - items SOLD by seller.
+     * The item list is only filled when includeItems=true.
      */
     @GetMapping("/seller/{sellerId}/sales")
     @PreAuthorize("hasRole('SELLER')")
-    public ResponseEntity<SellerSalesReportDTO> getSellerSalesReport(
+    public ResponseEntity<?> getSellerSalesReport(
             @PathVariable Long sellerId,
-            @RequestParam(required = false) String month) {
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "false") boolean includeItems,
+            @CurrentUser AuthenticatedUser seller) {
+        if (!isOwnerOrAdmin(seller, sellerId)) {
+            return forbidden();
+        }
 
         if (month == null || month.trim().isEmpty()) {
             month = getCurrentMonth();
         }
 
-        SellerSalesReportDTO report = reportService.generateSellerSalesReport(sellerId, month);
-        return ResponseEntity.ok(report);
+        String reportMonth = month;
+        SellerSalesReportDTO report = reportCache.get(ReportCache.Kind.SELLER_SALES, sellerId, month,
+                () -> reportService.generateSellerSalesReport(sellerId, reportMonth, false));
+        return ResponseEntity.ok(includeItems ? reportService.withItemsSold(report) : report);
+    }
+
+    /**
+     * Get user purchase reports for a range of months (from/to as yyyy-MM):
+     * one report per month plus the range total, in a single request
+     */
+    @GetMapping("/user/{userId}/purchases/range")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getUserPurchaseRangeReport(
+            @PathVariable Long userId,
+            @RequestParam String from,
+            @RequestParam String to,
+            @CurrentUser AuthenticatedUser user) {
+        if (!isOwnerOrAdmin(user, userId)) {
+            return forbidden();
+        }
+        try {
+            RangeReport<UserPurchaseReportDTO> report = reportService.generateUserPurchaseRangeReport(userId, from, to);
+            return ResponseEntity.ok(report);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Get seller sales reports for a range of months (from/to as yyyy-MM):
+     * one report per month plus the range total, in a single request
+     */
+    @GetMapping("/seller/{sellerId}/sales/range")
+    @PreAuthorize("hasRole('SELLER')")
+    public ResponseEntity<?> getSellerSalesRangeReport(
+            @PathVariable Long sellerId,
+            @RequestParam String from,
+            @RequestParam String to,
+            @CurrentUser AuthenticatedUser seller) {
+        if (!isOwnerOrAdmin(seller, sellerId)) {
+            return forbidden();
+        }
+        try {
+            RangeReport<SellerSalesReportDTO> report = reportService.generateSellerSalesRangeReport(sellerId, from, to);
+            return ResponseEntity.ok(report);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Download user purchase report as PDF, written to the response page by page
+     */
+    @GetMapping("/user/{userId}/purchases/pdf")
+    @PreAuthorize("isAuthenticated()")
+    public WebAsyncTask<Void> downloadUserPurchaseReportPdf(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String month,
+            @CurrentUser AuthenticatedUser user,
+            HttpServletResponse response) {
+
+        if (!isOwnerOrAdmin(user, userId)) {
+            throw new AccessDeniedException(FORBIDDEN_MESSAGE);
+        }
+        if (month == null || month.trim().isEmpty()) {
+            month = getCurrentMonth();
+        }
+
+        String reportMonth = month;
+        UserPurchaseReportDTO report = reportCache.get(ReportCache.Kind.USER_PURCHASES, userId, month,
+                () -> reportService.generateUserPurchaseReport(userId, reportMonth, false));
+        return pdf(response, "purchase-report-" + month + ".pdf", out -> reportPdfWriter.writeUserReport(report, out));
+    }
+
+    /**
+     * Download seller sales report as PDF, written to the response page by page
+     */
+    @GetMapping("/seller/{sellerId}/sales/pdf")
+    @PreAuthorize("hasRole('SELLER')")
+    public WebAsyncTask<Void> downloadSellerSalesReportPdf(
+            @PathVariable Long sellerId,
+            @RequestParam(required = false) String month,
+            @CurrentUser AuthenticatedUser seller,
+            HttpServletResponse response) {
+
+        if (!isOwnerOrAdmin(seller, sellerId)) {
+            throw new AccessDeniedException(FORBIDDEN_MESSAGE);
+        }
+        if (month == null || month.trim().isEmpty()) {
+            month = getCurrentMonth();
+        }
+
+        String reportMonth = month;
+        SellerSalesReportDTO report = reportCache.get(ReportCache.Kind.SELLER_SALES, sellerId, month,
+                () -> reportService.generateSellerSalesReport(sellerId, reportMonth, false));
+        return pdf(response, "sales-report-" + month + ".pdf", out -> reportPdfWriter.writeSellerReport(report, out));
+    }
+
+    /**
+     * Export user purchase lines as CSV or NDJSON (format=csv|ndjson), streamed row by row
+     */
+    @GetMapping("/user/{userId}/purchases/export")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> exportUserPurchases(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "csv") String format,
+            @CurrentUser AuthenticatedUser user) {
+        if (!isOwnerOrAdmin(user, userId)) {
+            return forbidden();
+        }
+        try {
+            YearMonth yearMonth = parseMonth(month);
+            ReportExportWriter.Format exportFormat = ReportExportWriter.Format.from(format);
+            return export("purchases-" + yearMonth + "." + exportFormat.getExtension(), exportFormat,
+                    out -> reportExportWriter.writeBoughtLines(userId, yearMonth, exportFormat, out));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Export seller sales lines as CSV or NDJSON (format=csv|ndjson), streamed row by row
+     */
+    @GetMapping("/seller/{sellerId}/sales/export")
+    @PreAuthorize("hasRole('SELLER')")
+    public ResponseEntity<?> exportSellerSales(
+            @PathVariable Long sellerId,
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "csv") String format,
+            @CurrentUser AuthenticatedUser seller) {
+        if (!isOwnerOrAdmin(seller, sellerId)) {
+            return forbidden();
+        }
+        try {
+            YearMonth yearMonth = parseMonth(month);
+            ReportExportWriter.Format exportFormat = ReportExportWriter.Format.from(format);
+            return export("sales-" + yearMonth + "." + exportFormat.getExtension(), exportFormat,
+                    out -> reportExportWriter.writeSoldLines(sellerId, yearMonth, exportFormat, out));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * PDF downloads render on a bounded pool (see PdfRenderPool); tell the client to retry when it is full
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleRenderPoolFull(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "10")
+                .body("Too many report downloads in progress, please try again shortly");
+    }
+
+    /**
+     * Reports are only for the user or seller they belong to, or an admin
+     */
+    private boolean isOwnerOrAdmin(AuthenticatedUser user, Long ownerId) {
+        return user.hasRole("ADMIN") || ownerId.equals(user.id());
+    }
+
+    private ResponseEntity<String> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(FORBIDDEN_MESSAGE);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String filename, ReportExportWriter.Format format,
+                                                         StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private YearMonth parseMonth(String month) {
+        if (month == null || month.trim().isEmpty()) {
+            return YearMonth.now();
+        }
+        return YearMonth.parse(month.trim(), DateTimeFormatter.ofPattern("yyyy-MM"));
+    }
+
+    // Renders on the PDF pool straight into the response, so no request or MVC async thread waits on iText
+    private WebAsyncTask<Void> pdf(HttpServletResponse response, String filename, StreamingResponseBody body) {
+        return pdfRenderPool.task(() -> {
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(filename).build().toString());
+            body.writeTo(response.getOutputStream());
+            return null;
+        });
     }
 
     /**
@@ -2,7 +2,8 @@ package com.infosys.springboard.ecobazaar.controller;
 
 import com.infosys.springboard.ecobazaar.entity.User;
 import com.infosys.springboard.ecobazaar.repository.UserRepository;
-import com.infosys.springboard.ecobazaar.security.JwtUtil;
+import com.infosys.springboard.ecobazaar.security.CurrentUser;
+import com.infosys.springboard.ecobazaar.security.PrincipalCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,26 +17,20 @@ import java.util.Map;
 public class UserController {
 
     private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     public UserController(UserRepository userRepository, 
-                          JwtUtil jwtUtil,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          PrincipalCache principalCache) {
         this.userRepository = userRepository;
-        this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
 
     // Get user profile
     @GetMapping("/profile")
-    public Map<String, Object> getProfile(@RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        String email = jwtUtil.extractEmail(token);
-        
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    public Map<String, Object> getProfile(@CurrentUser User user) {
         Map<String, Object> profile = new HashMap<>();
         profile.put("id", user.getId());
         profile.put("name", user.getName() != null ? user.getName() : "User");
@@ -53,16 +48,10 @@ public class UserController {
     @PutMapping("/profile")
     @Transactional
     public Map<String, Object> updateProfile(
-            @RequestHeader("Authorization") String authHeader,
+            @CurrentUser User user,
             @RequestBody Map<String, String> updates) {
         
         try {
-            String token = authHeader.replace("Bearer ", "");
-            String email = jwtUtil.extractEmail(token);
-            
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
             if (updates.containsKey("name")) {
                 String newName = updates.get("name");
                 if (newName != null && !newName.trim().isEmpty()) {
@@ -75,6 +64,7 @@ public class UserController {
             }
             
             User savedUser = userRepository.save(user);
+            principalCache.invalidate(savedUser.getEmail());
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Profile updated successfully");
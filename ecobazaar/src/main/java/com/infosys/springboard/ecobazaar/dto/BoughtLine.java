@@ -0,0 +1,20 @@
+package com.infosys.springboard.ecobazaar.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One purchased order line, selected as a projection so the purchase report's
+ * item list needs no Order, Product or seller entities
+ */
+public record BoughtLine(
+        String productName,
+        String category,
+        String ecoRating,
+        Integer quantity,
+        BigDecimal price,
+        BigDecimal subtotal,
+        BigDecimal carbonImpact,
+        BigDecimal totalCarbon,
+        LocalDateTime orderDate,
+        String sellerName) {}
@@ -0,0 +1,61 @@
+package com.infosys.springboard.ecobazaar.dto;
+
+/**
+ * One line of a PATCH /cart batch.
+ * ADD needs productId and quantity; SET_QUANTITY needs quantity and REMOVE
+ * nothing more - both find the line by cartItemId or, failing that, productId.
+ */
+public class CartOperation {
+
+    public enum Type {
+        ADD,
+        SET_QUANTITY,
+        REMOVE
+    }
+
+    private Type op;
+    private Long productId;
+    private Long cartItemId;
+    private Integer quantity;
+
+    public CartOperation() {}
+
+    public CartOperation(Type op, Long productId, Long cartItemId, Integer quantity) {
+        this.op = op;
+        this.productId = productId;
+        this.cartItemId = cartItemId;
+        this.quantity = quantity;
+    }
+
+    public Type getOp() {
+        return op;
+    }
+
+    public void setOp(Type op) {
+        this.op = op;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+
+    public void setCartItemId(Long cartItemId) {
+        this.cartItemId = cartItemId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,59 @@
+package com.infosys.springboard.ecobazaar.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cursor page plus facet counts for the whole result set.
+ * Each facet is counted with every other filter applied but its own,
+ * so the storefront can show how many items a click would give.
+ */
+public class FacetedPage<T> extends CursorPage<T> {
+    private long total;
+    private Map<String, Long> categories;
+    private Map<String, Long> ecoRatings;
+    private long ecoCertified;
+
+    public FacetedPage() {}
+
+    public FacetedPage(CursorPage<T> page, long total, Map<String, Long> categories,
+                       Map<String, Long> ecoRatings, long ecoCertified) {
+        super(page.getItems(), page.getNext());
+        this.total = total;
+        this.categories = categories;
+        this.ecoRatings = ecoRatings;
+        this.ecoCertified = ecoCertified;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Map<String, Long> categories) {
+        this.categories = categories;
+    }
+
+    public Map<String, Long> getEcoRatings() {
+        return ecoRatings;
+    }
+
+    public void setEcoRatings(Map<String, Long> ecoRatings) {
+        this.ecoRatings = ecoRatings;
+    }
+
+    public long getEcoCertified() {
+        return ecoCertified;
+    }
+
+    public void setEcoCertified(long ecoCertified) {
+        this.ecoCertified = ecoCertified;
+    }
+}
@@ -0,0 +1,57 @@
+package com.infosys.springboard.ecobazaar.dto;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page for keyset pagination: (sortKey, id).
+ * Sent to clients as an opaque URL-safe token.
+ */
+public record PageCursor(BigDecimal sortKey, Long id) {
+
+    // Smallest value a precision 10, scale 2 column can hold; sorts before every row
+    public static final BigDecimal MIN_DECIMAL = new BigDecimal("-99999999.99");
+
+    public static final PageCursor START = new PageCursor(null, null);
+
+    public String encode() {
+        String raw = (sortKey != null ? sortKey.toPlainString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token from a previous page. Null or blank means the first page.
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String sortKey = raw.substring(0, separator);
+            return new PageCursor(
+                    sortKey.isEmpty() ? null : new BigDecimal(sortKey),
+                    Long.valueOf(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Last id seen, or 0 on the first page (ids start at 1)
+     */
+    public Long idOrZero() {
+        return id != null ? id : 0L;
+    }
+
+    /**
+     * Last sort key seen, or the given lower bound on the first page
+     */
+    public BigDecimal sortKeyOr(BigDecimal firstPageBound) {
+        return sortKey != null ? sortKey : firstPageBound;
+    }
+}
@@ -0,0 +1,46 @@
+package com.infosys.springboard.ecobazaar.dto;
+
+import com.infosys.springboard.ecobazaar.catalog.CatalogProduct;
+
+import java.math.BigDecimal;
+
+/**
+ * What a product tile needs - returned by every product list endpoint.
+ * Only the first {@link #SUMMARY_LENGTH} characters of the description are
+ * sent; the full entity is served by /products/{id}.
+ */
+public record ProductCard(
+        Long id,
+        String name,
+        String summary,
+        String category,
+        BigDecimal price,
+        Integer stock,
+        BigDecimal carbonImpact,
+        Boolean ecoCertified,
+        String ecoRating,
+        Boolean approved,
+        String imageUrl) {
+
+    // Keep in sync with the SUBSTRING length in ProductRepository's card queries
+    public static final int SUMMARY_LENGTH = 160;
+
+    public static ProductCard from(CatalogProduct product) {
+        String description = product.description();
+        return new ProductCard(
+                product.id(),
+                product.name(),
+                description != null && description.length() > SUMMARY_LENGTH
+                        ? description.substring(0, SUMMARY_LENGTH)
+                        : description,
+                product.category(),
+                product.price(),
+                product.stock(),
+                product.carbonImpact(),
+                product.ecoCertified(),
+                product.ecoRating(),
+                product.approved(),
+                product.imageUrl()
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package com.infosys.springboard.ecobazaar.dto;
+
+import java.util.List;
+
+/**
+ * Reports for a range of months: the whole range as one report (its month is
+ * "from..to") plus one report per month, oldest first, including empty months
+ */
+public record RangeReport<T>(String from, String to, T total, List<T> months) {}
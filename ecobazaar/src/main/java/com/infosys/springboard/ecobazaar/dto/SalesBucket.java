@@ -0,0 +1,20 @@
+package com.infosys.springboard.ecobazaar.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One GROUP BY row of the seller sales aggregates: a day, category or eco rating
+ * with its revenue, carbon, units and distinct orders
+ */
+public interface SalesBucket {
+
+    String getBucket();
+
+    BigDecimal getRevenue();
+
+    BigDecimal getCarbon();
+
+    Long getUnits();
+
+    Long getOrderCount();
+}
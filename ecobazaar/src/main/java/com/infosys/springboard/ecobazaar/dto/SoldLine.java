@@ -0,0 +1,20 @@
+package com.infosys.springboard.ecobazaar.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One sold order line, selected as a projection so the sales report's item
+ * list needs no Order, User, Product or seller entities
+ */
+public record SoldLine(
+        String productName,
+        Integer quantity,
+        BigDecimal price,
+        BigDecimal subtotal,
+        BigDecimal carbonImpact,
+        BigDecimal totalCarbon,
+        LocalDateTime orderDate,
+        String category,
+        String ecoRating,
+        String buyerName) {}
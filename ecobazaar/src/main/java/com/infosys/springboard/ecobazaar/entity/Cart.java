@@ -54,35 +54,64 @@ public class Cart {
     }
 
     // Helper methods
-    public void calculateTotals() {
-        this.totalPrice = items.stream()
-                .map(item -> item.getSubtotal())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // Totals are kept running: every change applies its delta, so a mutation never
+    // walks the item list (or loads it just to sum it). Change item quantities
+    // through updateItemQuantity, not CartItem.setQuantity, to keep them in step.
 
-        this.totalCarbon = items.stream()
-                .map(item -> item.getTotalCarbon())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        this.totalItems = items.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+    private void applyDelta(CartItem item, int quantityDelta) {
+        BigDecimal delta = new BigDecimal(quantityDelta);
+        this.totalPrice = totalPrice.add(item.getPrice().multiply(delta));
+        this.totalCarbon = totalCarbon.add(item.getCarbonImpact().multiply(delta));
+        this.totalItems = totalItems + quantityDelta;
     }
 
     public void addItem(CartItem item) {
         items.add(item);
         item.setCart(this);
-        calculateTotals();
+        applyDelta(item, item.getQuantity());
+    }
+
+    public void updateItemQuantity(CartItem item, int quantity) {
+        int delta = quantity - item.getQuantity();
+        item.setQuantity(quantity);
+        applyDelta(item, delta);
     }
 
     public void removeItem(CartItem item) {
-        items.remove(item);
+        if (items.remove(item)) {
+            applyDelta(item, -item.getQuantity());
+        }
         item.setCart(null);
-        calculateTotals();
     }
 
     public void clearItems() {
         items.clear();
-        calculateTotals();
+        this.totalPrice = BigDecimal.ZERO;
+        this.totalCarbon = BigDecimal.ZERO;
+        this.totalItems = 0;
+    }
+
+    /**
+     * Full recompute from the items - verification and repair only, mutations keep totals
+     * up to date. Returns true when the running totals already matched.
+     */
+    public boolean recalculateTotals() {
+        BigDecimal price = BigDecimal.ZERO;
+        BigDecimal carbon = BigDecimal.ZERO;
+        int count = 0;
+        for (CartItem item : items) {
+            price = price.add(item.getSubtotal());
+            carbon = carbon.add(item.getTotalCarbon());
+            count += item.getQuantity();
+        }
+
+        boolean matched = price.compareTo(totalPrice) == 0
+                && carbon.compareTo(totalCarbon) == 0
+                && count == totalItems;
+        this.totalPrice = price;
+        this.totalCarbon = carbon;
+        this.totalItems = count;
+        return matched;
     }
 
     // Getters and Setters
@@ -2,6 +2,7 @@ package com.infosys.springboard.ecobazaar.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.infosys.springboard.ecobazaar.config.IdGeneratorInitializer;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 
@@ -12,8 +13,12 @@ import java.time.LocalDateTime;
 @Table(name = "cart_items")
 public class CartItem {
 
+    // Pooled table ids (see IdGeneratorInitializer) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_items_ids")
+    @TableGenerator(name = "cart_items_ids", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "cart_items",
+            allocationSize = IdGeneratorInitializer.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
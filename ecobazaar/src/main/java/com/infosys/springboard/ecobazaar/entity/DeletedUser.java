@@ -0,0 +1,34 @@
+package com.infosys.springboard.ecobazaar.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a deleted user. The user row is gone, but tokens issued before the
+ * deletion stay valid until they expire, so every node keeps rejecting them from
+ * this table (see RevocationList).
+ */
+@Entity
+@Table(name = "deleted_users")
+public class DeletedUser {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Set from the database clock (DeletedUserRepository.record) so nodes need not agree on time
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public DeletedUser() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -0,0 +1,64 @@
+package com.infosys.springboard.ecobazaar.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A block of flash-sale units one API node may sell (see FlashSaleStock).
+ * Units granted to a lease and not yet sold under it (order_items.flash_lease_id)
+ * cannot be granted to another node until the lease is released or expires.
+ */
+@Entity
+@Table(name = "flash_sale_leases", indexes = {
+        @Index(name = "idx_flash_sale_leases_product", columnList = "product_id")
+})
+public class FlashSaleLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "node_id", nullable = false, length = 36)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private Integer units;
+
+    // Set from the database clock (FlashSaleLeaseRepository.extend) so nodes need not agree on time
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public FlashSaleLease() {
+    }
+
+    public FlashSaleLease(Long productId, String nodeId, Integer units) {
+        this.productId = productId;
+        this.nodeId = nodeId;
+        this.units = units;
+        this.expiresAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Integer getUnits() {
+        return units;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -1,9 +1,10 @@
 package com.infosys.springboard.ecobazaar.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.infosys.springboard.ecobazaar.config.IdGeneratorInitializer;
 import jakarta.persistence.*;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,11 +12,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_rollup_counted", columnList = "rollup_counted")
+})
 public class Order {
 
+    // Pooled table ids (see IdGeneratorInitializer) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_ids")
+    @TableGenerator(name = "orders_ids", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "orders",
+            allocationSize = IdGeneratorInitializer.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -40,7 +47,6 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.PENDING;
 
-    @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime orderDate;
 
@@ -64,6 +70,12 @@ public class Order {
     @Column
     private LocalDateTime returnResolvedDate;
 
+    // Whether the purchase and seller rollups include this order; null until they were
+    // updated for it (see PurchaseRollupService)
+    @JsonIgnore
+    @Column(name = "rollup_counted")
+    private Boolean rollupCounted;
+
     // Constructors
     public Order() {
     }
@@ -79,6 +91,20 @@ public class Order {
     public void addOrderItem(OrderItem orderItem) {
         orderItems.add(orderItem);
         orderItem.setOrder(this);
+        orderItem.setOrderDate(orderDate);
+        orderItem.setOrderStatus(status);
+    }
+
+    // Items carry copies of the order date and status for the seller indexes
+    @PrePersist
+    void onCreate() {
+        if (orderDate == null) {
+            orderDate = LocalDateTime.now();
+        }
+        for (OrderItem item : orderItems) {
+            item.setOrderDate(orderDate);
+            item.setOrderStatus(status);
+        }
     }
 
     // Getters and Setters
@@ -136,6 +162,9 @@ public class Order {
 
     public void setStatus(OrderStatus status) {
         this.status = status;
+        for (OrderItem item : orderItems) {
+            item.setOrderStatus(status);
+        }
     }
 
     public LocalDateTime getOrderDate() {
@@ -194,6 +223,14 @@ public class Order {
         this.returnResolvedDate = returnResolvedDate;
     }
 
+    public Boolean getRollupCounted() {
+        return rollupCounted;
+    }
+
+    public void setRollupCounted(Boolean rollupCounted) {
+        this.rollupCounted = rollupCounted;
+    }
+
     // Enum for Order Status
     public enum OrderStatus {
         PENDING,
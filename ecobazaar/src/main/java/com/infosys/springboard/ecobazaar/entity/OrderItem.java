@@ -1,17 +1,29 @@
 package com.infosys.springboard.ecobazaar.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.infosys.springboard.ecobazaar.config.IdGeneratorInitializer;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_seller_date", columnList = "seller_id, order_date"),
+        @Index(name = "idx_order_items_seller_status", columnList = "seller_id, order_status"),
+        @Index(name = "idx_order_items_stock_pending", columnList = "stock_pending, product_id"),
+        @Index(name = "idx_order_items_flash_lease", columnList = "flash_lease_id")
+})
 public class OrderItem {
 
+    // Pooled table ids (see IdGeneratorInitializer) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_ids")
+    @TableGenerator(name = "order_items_ids", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "order_items",
+            allocationSize = IdGeneratorInitializer.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -33,12 +45,43 @@ public class OrderItem {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal carbonImpact; // Carbon impact at the time of order
 
+    @Column
+    private String category; // Category at the time of order
+
+    @Column(name = "eco_rating")
+    private String ecoRating; // Eco rating at the time of order
+
+    // Seller at the time of order, so sales stay attributed if the product changes hands
+    @JsonIgnore
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    // Copies of the order's date and status (kept in sync by Order) for the seller indexes
+    @JsonIgnore
+    @Column(name = "order_date")
+    private LocalDateTime orderDate;
+
+    @JsonIgnore
+    @Column(name = "order_status")
+    @Enumerated(EnumType.STRING)
+    private Order.OrderStatus orderStatus;
+
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal subtotal;
 
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal totalCarbon;
 
+    // Sold from a flash-sale counter; quantity not yet subtracted from products.stock
+    @JsonIgnore
+    @Column(name = "stock_pending", nullable = false)
+    private Boolean stockPending = false;
+
+    // Flash-sale lease the quantity was sold under (see FlashSaleLease)
+    @JsonIgnore
+    @Column(name = "flash_lease_id")
+    private Long flashLeaseId;
+
     // Constructors
     public OrderItem() {
     }
@@ -48,6 +91,9 @@ public class OrderItem {
         this.quantity = quantity;
         this.price = price;
         this.carbonImpact = carbonImpact;
+        this.category = product.getCategory();
+        this.ecoRating = product.getEcoRating();
+        this.sellerId = product.getSeller() != null ? product.getSeller().getId() : null;
         this.subtotal = price.multiply(new BigDecimal(quantity));
         this.totalCarbon = carbonImpact.multiply(new BigDecimal(quantity));
     }
@@ -101,6 +147,22 @@ public class OrderItem {
         this.carbonImpact = carbonImpact;
     }
 
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getEcoRating() {
+        return ecoRating;
+    }
+
+    public void setEcoRating(String ecoRating) {
+        this.ecoRating = ecoRating;
+    }
+
     public BigDecimal getSubtotal() {
         return subtotal;
     }
@@ -116,4 +178,44 @@ public class OrderItem {
     public void setTotalCarbon(BigDecimal totalCarbon) {
         this.totalCarbon = totalCarbon;
     }
+
+    public Boolean getStockPending() {
+        return stockPending;
+    }
+
+    public void setStockPending(Boolean stockPending) {
+        this.stockPending = stockPending;
+    }
+
+    public Long getFlashLeaseId() {
+        return flashLeaseId;
+    }
+
+    public void setFlashLeaseId(Long flashLeaseId) {
+        this.flashLeaseId = flashLeaseId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+
+    public Order.OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public void setOrderStatus(Order.OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+    }
 }
@@ -2,13 +2,25 @@ package com.infosys.springboard.ecobazaar.entity;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset pagination: filter on approved, seek on (sortKey, id)
+        @Index(name = "idx_products_approved_category", columnList = "approved, category"),
+        @Index(name = "idx_products_approved_eco_rating", columnList = "approved, eco_rating"),
+        @Index(name = "idx_products_approved_price", columnList = "approved, price"),
+        @Index(name = "idx_products_approved_carbon", columnList = "approved, carbon_impact"),
+        // Catalog reload on other nodes
+        @Index(name = "idx_products_updated_at", columnList = "updated_at")
+})
+// Only changed columns are written, so saving a product never overwrites stock
+// that checkout and the flash-sale flusher update with their own UPDATE statements
+@DynamicUpdate
 public class Product {
     
     @Id
@@ -42,6 +54,13 @@ public class Product {
     @Column(nullable = false)
     private Boolean approved = false; // Admin approval status
 
+    @Column(nullable = false)
+    private Boolean flashSale = false; // Checkout takes stock from FlashSaleStock
+
+    // Set while a flash sale is ending (database clock, see FlashSaleStock.disable)
+    @Column(name = "flash_sale_ends_at")
+    private LocalDateTime flashSaleEndsAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id", nullable = false)
     private User seller;
@@ -152,6 +171,22 @@ public class Product {
         this.approved = approved;
     }
 
+    public Boolean getFlashSale() {
+        return flashSale;
+    }
+
+    public void setFlashSale(Boolean flashSale) {
+        this.flashSale = flashSale;
+    }
+
+    public LocalDateTime getFlashSaleEndsAt() {
+        return flashSaleEndsAt;
+    }
+
+    public void setFlashSaleEndsAt(LocalDateTime flashSaleEndsAt) {
+        this.flashSaleEndsAt = flashSaleEndsAt;
+    }
+
     public User getSeller() {
         return seller;
     }
@@ -0,0 +1,154 @@
+package com.infosys.springboard.ecobazaar.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated sales of one seller on one day, per category and eco-rating.
+ * Maintained by PurchaseRollupService as orders are placed, cancelled and returned.
+ *
+ * Uses the same subtotal rows as {@link UserPurchaseRollup}: (category, ecoRating),
+ * (category, ALL) and (ALL, ALL), each with its own distinct order count. An order
+ * falls on exactly one day, so monthly order counts are the sum of the daily ones.
+ */
+@Entity
+@Table(name = "seller_sales_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_seller_sales_rollup",
+                columnNames = {"seller_id", "sale_date", "category", "eco_rating"})
+})
+public class SellerSalesRollup {
+
+    public static final String ALL = UserPurchaseRollup.ALL;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "eco_rating", nullable = false)
+    private String ecoRating;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalCarbon = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Integer itemCount = 0;
+
+    @Column(nullable = false)
+    private Integer orderCount = 0;
+
+    // Bumped by every upsert that hits an existing row (rows are never deleted), so the
+    // row count plus the revisions of an owner's month changes whenever its report does
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private Long revision = 0L;
+
+    // Constructors
+    public SellerSalesRollup() {
+    }
+
+    public boolean isTotal() {
+        return ALL.equals(category) && ALL.equals(ecoRating);
+    }
+
+    public boolean isCategoryTotal() {
+        return !ALL.equals(category) && ALL.equals(ecoRating);
+    }
+
+    public boolean isDetail() {
+        return !ALL.equals(category) && !ALL.equals(ecoRating);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public void setSaleDate(LocalDate saleDate) {
+        this.saleDate = saleDate;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getEcoRating() {
+        return ecoRating;
+    }
+
+    public void setEcoRating(String ecoRating) {
+        this.ecoRating = ecoRating;
+    }
+
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public void setTotalRevenue(BigDecimal totalRevenue) {
+        this.totalRevenue = totalRevenue;
+    }
+
+    public BigDecimal getTotalCarbon() {
+        return totalCarbon;
+    }
+
+    public void setTotalCarbon(BigDecimal totalCarbon) {
+        this.totalCarbon = totalCarbon;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Integer getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Integer orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+}
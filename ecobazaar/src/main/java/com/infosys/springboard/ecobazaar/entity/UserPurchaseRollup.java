@@ -0,0 +1,153 @@
+package com.infosys.springboard.ecobazaar.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Pre-aggregated purchases of one user in one month, per category and eco-rating.
+ * Maintained by PurchaseRollupService as orders are placed, cancelled and returned.
+ *
+ * {@link #ALL} in category and/or ecoRating marks a subtotal row. Order counts cannot
+ * be summed across rows (one order spans several categories), so each level keeps its own:
+ * (category, ecoRating), (category, ALL) and (ALL, ALL) for the month total.
+ */
+@Entity
+@Table(name = "user_purchase_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_purchase_rollup",
+                columnNames = {"user_id", "month", "category", "eco_rating"})
+})
+public class UserPurchaseRollup {
+
+    public static final String ALL = "ALL";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 7)
+    private String month; // yyyy-MM
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "eco_rating", nullable = false)
+    private String ecoRating;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalSpent = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalCarbon = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Integer itemCount = 0;
+
+    @Column(nullable = false)
+    private Integer orderCount = 0;
+
+    // Bumped by every upsert that hits an existing row (rows are never deleted), so the
+    // row count plus the revisions of an owner's month changes whenever its report does
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private Long revision = 0L;
+
+    // Constructors
+    public UserPurchaseRollup() {
+    }
+
+    public boolean isTotal() {
+        return ALL.equals(category) && ALL.equals(ecoRating);
+    }
+
+    public boolean isCategoryTotal() {
+        return !ALL.equals(category) && ALL.equals(ecoRating);
+    }
+
+    public boolean isDetail() {
+        return !ALL.equals(category) && !ALL.equals(ecoRating);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getEcoRating() {
+        return ecoRating;
+    }
+
+    public void setEcoRating(String ecoRating) {
+        this.ecoRating = ecoRating;
+    }
+
+    public BigDecimal getTotalSpent() {
+        return totalSpent;
+    }
+
+    public void setTotalSpent(BigDecimal totalSpent) {
+        this.totalSpent = totalSpent;
+    }
+
+    public BigDecimal getTotalCarbon() {
+        return totalCarbon;
+    }
+
+    public void setTotalCarbon(BigDecimal totalCarbon) {
+        this.totalCarbon = totalCarbon;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Integer getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Integer orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+}
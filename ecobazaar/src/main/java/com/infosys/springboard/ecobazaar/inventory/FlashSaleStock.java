@@ -0,0 +1,419 @@
+package com.infosys.springboard.ecobazaar.inventory;
+
+import com.infosys.springboard.ecobazaar.catalog.ProductChangedEvent;
+import com.infosys.springboard.ecobazaar.entity.FlashSaleLease;
+import com.infosys.springboard.ecobazaar.entity.OrderItem;
+import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.repository.FlashSaleLeaseRepository;
+import com.infosys.springboard.ecobazaar.repository.OrderItemRepository;
+import com.infosys.springboard.ecobazaar.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flash-sale mode for hot products. Checkouts take stock from a striped
+ * in-memory counter instead of the product row, so buyers of one product no
+ * longer queue on its MySQL row lock.
+ *
+ * Several API nodes: a node's counter only ever holds units it leased
+ * (flash_sale_leases) under the product row lock. A lease is granted from
+ * products.stock - pending lines - units leased but not yet sold on any node,
+ * so all nodes together cannot sell more than the stock. Nodes renew their
+ * leases every second; the leases of a node that stops are reclaimed once they
+ * expire. The persisted products.flash_sale flag decides whether a product is on
+ * sale; regular checkouts never decrement a flash-sale product
+ * (ProductRepository.decrementStock).
+ *
+ * Fencing: checkouts take no lock on the lease. A node only sells from a lease
+ * until {@link #LEASE_MARGIN_SECONDS} before the expiry its last renewal set,
+ * checked when a checkout reserves and again just before it commits, while
+ * other nodes only reclaim expired leases. Renewals and grants refuse an expired
+ * lease, so a node that missed its renewals drops the sale and continues under a
+ * new lease. Lease ids are never reused: the id saved on each order line is the
+ * epoch the units were sold under. Ending a sale expires its leases at once and
+ * settles the product once the margin after the longest possible expiry has passed.
+ *
+ * Accounting: an order line sold this way is saved with stockPending = true and
+ * its lease, and its quantity is not yet subtracted from products.stock. A
+ * background flusher subtracts pending quantities and clears the flag in one
+ * transaction per batch, so after a crash every line is either still pending or
+ * fully settled. Flushers on several nodes skip each other's locked lines.
+ */
+@Component
+public class FlashSaleStock {
+
+    private static final long MAINTENANCE_INTERVAL_MS = 1000;
+    private static final int FLUSH_BATCH = 500;
+    // Units leased at a time; a larger checkout leases what it needs
+    private static final int LEASE_UNITS = 50;
+    // Renewed every second; an expired lease is reclaimed by the next grant on any node
+    private static final int LEASE_SECONDS = 15;
+    // A node stops selling this long before its lease can expire, so a checkout that
+    // passed the check has committed before another node can take the units back
+    private static final int LEASE_MARGIN_SECONDS = 5;
+    private static final long SELLABLE_NANOS = TimeUnit.SECONDS.toNanos(LEASE_SECONDS - LEASE_MARGIN_SECONDS);
+    private static final int STRIPES = Math.min(64, Runtime.getRuntime().availableProcessors());
+
+    private static final class Sale {
+        final StripedCounter counter = new StripedCounter(0, STRIPES);
+        // Set by the first grant; later grants extend the same lease
+        volatile Long leaseId;
+        // System.nanoTime() until which this node may sell from the lease
+        final AtomicLong sellableUntil = new AtomicLong(System.nanoTime());
+
+        boolean sellable() {
+            return System.nanoTime() - sellableUntil.get() < 0;
+        }
+
+        // startedAt: before the grant or renewal transaction, so before the database set the expiry
+        void renewed(long startedAt) {
+            long until = startedAt + SELLABLE_NANOS;
+            sellableUntil.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+        }
+
+        void stopSelling() {
+            sellableUntil.set(System.nanoTime());
+        }
+    }
+
+    private record Grant(Long leaseId, int units) {
+    }
+
+    private static final Grant ENDED = new Grant(null, -1);
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final FlashSaleLeaseRepository leaseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<Long, Sale> sales = new ConcurrentHashMap<>();
+
+    // Renews leases, follows the persisted flags, settles pending lines and ends sales
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "flash-sale-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FlashSaleStock(ProductRepository productRepository,
+                          OrderItemRepository orderItemRepository,
+                          FlashSaleLeaseRepository leaseRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.leaseRepository = leaseRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Settle whatever was left pending, then join the active sales
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flush();
+        syncSales();
+        maintenance.scheduleWithFixedDelay(this::maintainQuietly,
+                MAINTENANCE_INTERVAL_MS, MAINTENANCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        System.out.println("Flash sale stock ready: " + sales.size() + " active products, node " + nodeId);
+    }
+
+    public boolean isActive(Long productId) {
+        return sales.containsKey(productId);
+    }
+
+    /**
+     * Called when a regular stock decrement matched no row. Joins the product's sale
+     * if it has one (started on another node) and returns whether it does.
+     */
+    public boolean join(Long productId) {
+        if (!productRepository.existsByIdAndFlashSaleTrue(productId)) {
+            return false;
+        }
+        sales.computeIfAbsent(productId, id -> new Sale());
+        return true;
+    }
+
+    /**
+     * Units left per flash-sale product over all nodes: products.stock - pending lines
+     */
+    public Map<Long, Integer> available() {
+        Map<Long, Integer> available = new TreeMap<>();
+        for (Product product : productRepository.findAllById(productRepository.findFlashSaleIds())) {
+            available.put(product.getId(),
+                    Math.max(0, product.getStock() - (int) orderItemRepository.sumPendingStock(product.getId())));
+        }
+        return available;
+    }
+
+    /**
+     * Take stock for a checkout. Must run inside the checkout transaction: the units
+     * go back to the counter if it rolls back. Returns the lease the units were sold
+     * under, to be saved on the order line, or null when sold out.
+     */
+    public Long reserve(Long productId, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Flash sale reservations need an active transaction");
+        }
+        Sale sale = sales.get(productId);
+        if (sale == null) {
+            throw saleEnding();
+        }
+        while (!sale.counter.tryTake(quantity)) {
+            if (!lease(productId, sale, quantity)) {
+                return null;
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // The checkout ran past the lease's sell window: the units may be reclaimed
+                if (!sale.sellable()) {
+                    throw saleEnding();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    sale.counter.add(quantity);
+                }
+            }
+        });
+
+        // Renewals are failing, or the sale is ending; the next renewal either
+        // gets through or drops the sale (see renewLeases)
+        if (!sale.sellable()) {
+            throw saleEnding();
+        }
+        return sale.leaseId;
+    }
+
+    // Lease more units for this node; false when fewer than needed are left
+    private boolean lease(Long productId, Sale sale, int needed) {
+        synchronized (sale) {
+            if (sale.counter.sum() >= needed) {
+                return true; // another buyer just leased more
+            }
+            long startedAt = System.nanoTime();
+            Grant grant = transactionTemplate.execute(status -> grant(productId, sale.leaseId, needed));
+            if (grant == ENDED) {
+                sales.remove(productId, sale);
+                throw saleEnding();
+            }
+            if (grant.units() == 0) {
+                return false;
+            }
+            sale.leaseId = grant.leaseId();
+            sale.renewed(startedAt);
+            sale.counter.fill(grant.units());
+            return true;
+        }
+    }
+
+    private Grant grant(Long productId, Long leaseId, int needed) {
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        if (!Boolean.TRUE.equals(product.getFlashSale()) || product.getFlashSaleEndsAt() != null) {
+            return ENDED;
+        }
+        List<Long> expired = leaseRepository.findExpiredIds(productId);
+        if (!expired.isEmpty()) {
+            leaseRepository.deleteExpired(expired);
+        }
+
+        int units = (int) Math.min(free(product), Math.max(LEASE_UNITS, needed));
+        if (units < needed) {
+            return new Grant(leaseId, 0);
+        }
+        if (leaseId == null) {
+            leaseId = leaseRepository.saveAndFlush(new FlashSaleLease(productId, nodeId, units)).getId();
+            leaseRepository.start(leaseId, LEASE_SECONDS);
+        } else if (leaseRepository.extend(leaseId, units, LEASE_SECONDS) == 0) {
+            return ENDED; // expired or reclaimed; the caller drops the sale and rejoins with a new lease
+        }
+        return new Grant(leaseId, units);
+    }
+
+    // Units no node holds yet (caller holds the product row lock)
+    private long free(Product product) {
+        return product.getStock()
+                - orderItemRepository.sumPendingStock(product.getId())
+                - leaseRepository.sumUnsold(product.getId());
+    }
+
+    private static RuntimeException saleEnding() {
+        return new RuntimeException("Flash sale for this product is ending, please retry checkout");
+    }
+
+    /**
+     * Switch a product to flash-sale mode on every node. Returns the units available.
+     */
+    public int enable(Long productId) {
+        int available = transactionTemplate.execute(status -> {
+            Product product = productRepository.findByIdForUpdate(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+            if (product.getFlashSaleEndsAt() != null) {
+                throw new RuntimeException("Flash sale for this product is still ending, please retry shortly");
+            }
+            product.setFlashSale(true);
+            return (int) Math.max(0, free(product));
+        });
+        sales.computeIfAbsent(productId, id -> new Sale());
+        return available;
+    }
+
+    /**
+     * Switch a product back to regular checkout on every node. Returns at once: its
+     * leases expire now, and the sale ends in the background (on whichever node gets
+     * there first) once no node can still be selling from them.
+     */
+    public void disable(Long productId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findByIdForUpdate(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+            if (!Boolean.TRUE.equals(product.getFlashSale()) || product.getFlashSaleEndsAt() != null) {
+                return; // not on sale, or already ending
+            }
+            leaseRepository.expireByProductId(productId);
+            // Every lease was last renewed before now, so its node stopped selling by now + LEASE_SECONDS
+            productRepository.scheduleFlashSaleEnd(productId, LEASE_SECONDS);
+        });
+    }
+
+    private void endDueSales() {
+        for (Long productId : productRepository.findFlashSalesDueToEnd()) {
+            end(productId);
+        }
+    }
+
+    private void end(Long productId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findByIdForUpdate(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+            if (product.getFlashSaleEndsAt() == null) {
+                return; // ended by another node
+            }
+            product.setFlashSale(false);
+            product.setFlashSaleEndsAt(null);
+            leaseRepository.deleteByProductId(productId);
+            settle(productId, orderItemRepository.lockAllPendingStock(productId));
+        });
+        sales.remove(productId);
+    }
+
+    private void maintainQuietly() {
+        try {
+            renewLeases();
+            syncSales();
+            endDueSales();
+            flush();
+        } catch (RuntimeException e) {
+            // Lines stay pending and are picked up by the next run
+            System.err.println("Flash sale maintenance failed: " + e.getMessage());
+        }
+    }
+
+    // One transaction per lease, so a renewal never holds one lease while waiting for another
+    private void renewLeases() {
+        for (Map.Entry<Long, Sale> entry : sales.entrySet()) {
+            Sale sale = entry.getValue();
+            Long leaseId = sale.leaseId;
+            if (leaseId == null) {
+                continue;
+            }
+            long startedAt = System.nanoTime();
+            Integer renewed = transactionTemplate.execute(status -> leaseRepository.extend(leaseId, 0, LEASE_SECONDS));
+            if (renewed != null && renewed > 0) {
+                sale.renewed(startedAt);
+            } else {
+                // Expired or reclaimed: syncSales rejoins with a new lease if the sale goes on
+                sale.stopSelling();
+                sales.remove(entry.getKey(), sale);
+            }
+        }
+    }
+
+    // Follow sales started or ended on other nodes. A dropped sale's unsold units
+    // return to the pool when its lease, no longer renewed, expires.
+    private void syncSales() {
+        Set<Long> flagged = new HashSet<>(productRepository.findFlashSaleIds());
+        sales.keySet().removeIf(productId -> !flagged.contains(productId));
+        flagged.forEach(productId -> sales.computeIfAbsent(productId, id -> new Sale()));
+    }
+
+    /**
+     * Settle all committed pending lines, one transaction per product batch
+     */
+    void flush() {
+        for (Long productId : orderItemRepository.findPendingProductIds()) {
+            int settled;
+            do {
+                settled = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                    // Product row first, like ending a sale, so the two cannot deadlock
+                    productRepository.findByIdForUpdate(productId);
+                    return settle(productId, orderItemRepository.lockPendingStock(productId, Limit.of(FLUSH_BATCH)));
+                }));
+            } while (settled == FLUSH_BATCH);
+        }
+    }
+
+    // Subtract the lines from products.stock and mark them settled (caller holds the row lock)
+    private int settle(Long productId, List<OrderItem> lines) {
+        if (lines.isEmpty()) {
+            return 0;
+        }
+        productRepository.settlePendingStock(productId, lines.stream().mapToInt(OrderItem::getQuantity).sum());
+        orderItemRepository.markStockSettled(lines.stream().map(OrderItem::getId).toList());
+
+        eventPublisher.publishEvent(new ProductChangedEvent(productId));
+        return lines.size();
+    }
+
+    /**
+     * Hand this node's unsold units back after the fencing margin instead of at expiry
+     */
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+        sales.values().forEach(Sale::stopSelling);
+        List<Long> leaseIds = sales.values().stream().map(sale -> sale.leaseId).filter(Objects::nonNull).toList();
+        sales.clear();
+        try {
+            if (!leaseIds.isEmpty()) {
+                transactionTemplate.executeWithoutResult(
+                        status -> leaseRepository.release(leaseIds, LEASE_MARGIN_SECONDS));
+            }
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Flash sale shutdown failed: " + e.getMessage());
+        }
+    }
+}
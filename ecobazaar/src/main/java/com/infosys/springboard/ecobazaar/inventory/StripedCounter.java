@@ -0,0 +1,104 @@
+package com.infosys.springboard.ecobazaar.inventory;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Stock counter split across stripes so concurrent buyers of one product
+ * CAS on different cache lines instead of all contending on one value.
+ * A stripe never goes below zero, so the total can never be oversold.
+ */
+class StripedCounter {
+
+    // 16 ints = 64 bytes between stripes, so each sits on its own cache line
+    private static final int PADDING = 16;
+
+    private final int stripeCount;
+    private final AtomicIntegerArray cells;
+
+    StripedCounter(int initial, int stripeCount) {
+        this.stripeCount = stripeCount;
+        this.cells = new AtomicIntegerArray(stripeCount * PADDING);
+        fill(initial);
+    }
+
+    /**
+     * Add units spread evenly over the stripes (a new lease), so buyers keep
+     * taking from their own stripe
+     */
+    void fill(int quantity) {
+        int share = quantity / stripeCount;
+        int remainder = quantity % stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            int units = share + (i < remainder ? 1 : 0);
+            if (units > 0) {
+                cells.addAndGet(i * PADDING, units);
+            }
+        }
+    }
+
+    private int homeStripe() {
+        return Math.floorMod(Long.hashCode(Thread.currentThread().threadId()), stripeCount);
+    }
+
+    /**
+     * Take {@code quantity} units, or nothing when fewer are left
+     */
+    boolean tryTake(int quantity) {
+        int home = homeStripe();
+
+        // Fast path: one stripe covers the whole quantity, starting with this thread's own
+        for (int i = 0; i < stripeCount; i++) {
+            if (takeUpTo((home + i) % stripeCount, quantity, true) == quantity) {
+                return true;
+            }
+        }
+
+        // Slow path (near sell-out): gather from several stripes, give back on a shortfall
+        int[] taken = new int[stripeCount];
+        int remaining = quantity;
+        for (int i = 0; i < stripeCount && remaining > 0; i++) {
+            int stripe = (home + i) % stripeCount;
+            taken[stripe] = takeUpTo(stripe, remaining, false);
+            remaining -= taken[stripe];
+        }
+        if (remaining == 0) {
+            return true;
+        }
+        for (int stripe = 0; stripe < stripeCount; stripe++) {
+            if (taken[stripe] > 0) {
+                cells.addAndGet(stripe * PADDING, taken[stripe]);
+            }
+        }
+        return false;
+    }
+
+    // Takes min(available, wanted) from one stripe; with allOrNothing, only the full amount
+    private int takeUpTo(int stripe, int wanted, boolean allOrNothing) {
+        int index = stripe * PADDING;
+        while (true) {
+            int available = cells.get(index);
+            if (available <= 0 || (allOrNothing && available < wanted)) {
+                return 0;
+            }
+            int take = Math.min(available, wanted);
+            if (cells.compareAndSet(index, available, available - take)) {
+                return take;
+            }
+        }
+    }
+
+    /**
+     * Return units (rolled-back checkout)
+     */
+    void add(int quantity) {
+        cells.addAndGet(homeStripe() * PADDING, quantity);
+    }
+
+    int sum() {
+        int total = 0;
+        for (int i = 0; i < stripeCount; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,10 @@
+package com.infosys.springboard.ecobazaar.report;
+
+import java.util.List;
+
+/**
+ * Published whenever an order starts or stops counting in reports: placed,
+ * cancelled, returned or moved in or out of CANCELLED. Names the buyer, the
+ * sellers of its lines and the month (yyyy-MM) the order falls in.
+ */
+public record OrderChangedEvent(Long userId, List<Long> sellerIds, String month) {}
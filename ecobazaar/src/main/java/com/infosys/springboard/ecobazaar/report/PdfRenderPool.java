@@ -0,0 +1,40 @@
+package com.infosys.springboard.ecobazaar.report;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Bounded pool the report PDF downloads render on, instead of request threads or the
+ * MVC async executor other endpoints share. Once its threads and queue are full,
+ * further downloads are refused with a TaskRejectedException.
+ */
+@Component
+public class PdfRenderPool {
+
+    private static final int THREADS = 4;
+    private static final int QUEUE = 16;
+    private static final long TIMEOUT_MS = 10 * 60 * 1000;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public PdfRenderPool() {
+        executor.setCorePoolSize(THREADS);
+        executor.setMaxPoolSize(THREADS);
+        executor.setQueueCapacity(QUEUE);
+        executor.setThreadNamePrefix("report-pdf-");
+        executor.initialize();
+    }
+
+    public <T> WebAsyncTask<T> task(Callable<T> render) {
+        return new WebAsyncTask<>(TIMEOUT_MS, executor, render);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
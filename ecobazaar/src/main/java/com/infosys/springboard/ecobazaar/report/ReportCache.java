@@ -0,0 +1,116 @@
+package com.infosys.springboard.ecobazaar.report;
+
+import com.infosys.springboard.ecobazaar.repository.SellerSalesRollupRepository;
+import com.infosys.springboard.ecobazaar.repository.UserPurchaseRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of generated purchase and sales reports, keyed by kind, owner and month.
+ * Only line-free reports (totals and breakdowns, a few KB) are cached; item lines
+ * are loaded per request on top of a cached report (ReportService.withItemsBought
+ * and withItemsSold), so an entry's size does not grow with order volume.
+ *
+ * Reports are invalidated when an {@link OrderChangedEvent} for that owner and
+ * month commits on this node. Closed months, which only change when one of their
+ * orders is cancelled or returned, are kept until then: each hit compares the
+ * entry's rollup revision (revisionOf on the rollup repositories) with the current
+ * one, which also catches changes committed on other nodes. The current month
+ * changes with every order, so it simply expires after {@link #CURRENT_MONTH_TTL_MS}.
+ */
+@Component
+public class ReportCache {
+
+    public enum Kind { USER_PURCHASES, SELLER_SALES }
+
+    private record Key(Kind kind, Long ownerId, String month) {}
+
+    // expiresAt for the current month, revision for closed months
+    private record Entry(Object report, long expiresAt, long revision) {}
+
+    private static final int MAX_ENTRIES = 2000;
+    private static final long CURRENT_MONTH_TTL_MS = 30_000;
+
+    @Autowired
+    private UserPurchaseRollupRepository userRollupRepository;
+
+    @Autowired
+    private SellerSalesRollupRepository sellerRollupRepository;
+
+    // Bumped on invalidation, so a report computed across a commit is not cached stale
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    /**
+     * The cached report, or the loader's result (which is cached unless the
+     * owner's month was invalidated while it ran). The loader must not fill item lines.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Kind kind, Long ownerId, String month, Supplier<T> loader) {
+        YearMonth yearMonth = YearMonth.parse(month);
+        Key key = new Key(kind, ownerId, yearMonth.toString());
+        int stripe = stripe(kind, ownerId, key.month());
+        boolean closed = yearMonth.isBefore(YearMonth.now());
+        // Read before loading: a change committed while the loader runs leaves a stale revision, never a stale report
+        long revision = closed ? revision(kind, ownerId, yearMonth) : 0;
+
+        long generation;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && (closed
+                    ? entry.revision() == revision
+                    : entry.expiresAt() > System.currentTimeMillis())) {
+                return (T) entry.report();
+            }
+            generation = generations[stripe];
+        }
+
+        T report = loader.get();
+
+        long expiresAt = closed ? Long.MAX_VALUE : System.currentTimeMillis() + CURRENT_MONTH_TTL_MS;
+        synchronized (this) {
+            if (generations[stripe] == generation) {
+                entries.put(key, new Entry(report, expiresAt, revision));
+            }
+        }
+        return report;
+    }
+
+    private long revision(Kind kind, Long ownerId, YearMonth month) {
+        return kind == Kind.USER_PURCHASES
+                ? userRollupRepository.revisionOf(ownerId, month.toString())
+                : sellerRollupRepository.revisionOf(ownerId, month.atDay(1), month.atEndOfMonth());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        invalidate(Kind.USER_PURCHASES, event.userId(), event.month());
+        for (Long sellerId : event.sellerIds()) {
+            invalidate(Kind.SELLER_SALES, sellerId, event.month());
+        }
+    }
+
+    private synchronized void invalidate(Kind kind, Long ownerId, String month) {
+        generations[stripe(kind, ownerId, month)]++;
+        entries.remove(new Key(kind, ownerId, month));
+    }
+
+    private static int stripe(Kind kind, Long ownerId, String month) {
+        return Math.floorMod(Objects.hash(kind, ownerId, month), GENERATION_STRIPES);
+    }
+}
@@ -0,0 +1,201 @@
+package com.infosys.springboard.ecobazaar.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.infosys.springboard.ecobazaar.service.ReportService;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+
+/**
+ * Line-level exports of sales and purchases as CSV or NDJSON. Rows are written
+ * as ReportService streams them from a forward-only cursor of projections (no
+ * managed entities), so memory stays flat whatever the number of lines.
+ */
+@Component
+public class ReportExportWriter {
+
+    public enum Format {
+        CSV(MediaType.parseMediaType("text/csv"), "csv"),
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value + " (use csv or ndjson)");
+        }
+    }
+
+    private static final String[] SOLD_COLUMNS = {"orderDate", "productName", "category", "ecoRating",
+            "quantity", "price", "subtotal", "carbonImpact", "totalCarbon", "buyerName"};
+
+    private static final String[] BOUGHT_COLUMNS = {"orderDate", "productName", "category", "ecoRating",
+            "quantity", "price", "subtotal", "carbonImpact", "totalCarbon", "sellerName"};
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // No root value separator: Jackson's default puts a space before every row after the first
+    private static final JsonFactory JSON = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .rootValueSeparator((String) null)
+            .build();
+
+    private final ReportService reportService;
+
+    public ReportExportWriter(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    public void writeSoldLines(Long sellerId, YearMonth month, Format format, OutputStream out) throws IOException {
+        try (RowWriter rows = open(format, SOLD_COLUMNS, out)) {
+            reportService.forEachSoldLine(sellerId, month, line -> rows.write(
+                    line.orderDate(), line.productName(), line.category(), line.ecoRating(),
+                    line.quantity(), line.price(), line.subtotal(), line.carbonImpact(), line.totalCarbon(),
+                    line.buyerName()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public void writeBoughtLines(Long userId, YearMonth month, Format format, OutputStream out) throws IOException {
+        try (RowWriter rows = open(format, BOUGHT_COLUMNS, out)) {
+            reportService.forEachBoughtLine(userId, month, line -> rows.write(
+                    line.orderDate(), line.productName(), line.category(), line.ecoRating(),
+                    line.quantity(), line.price(), line.subtotal(), line.carbonImpact(), line.totalCarbon(),
+                    line.sellerName()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static RowWriter open(Format format, String[] columns, OutputStream out) throws IOException {
+        // Never closes the servlet stream, which Spring owns; close() only flushes
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return format == Format.CSV ? new CsvRowWriter(writer, columns) : new NdjsonRowWriter(writer, columns);
+    }
+
+    /**
+     * Writes one row per call; I/O errors (usually the client going away) surface as UncheckedIOException
+     */
+    private interface RowWriter extends AutoCloseable {
+
+        void write(Object... values);
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer, String[] columns) throws IOException {
+            this.writer = writer;
+            writeRow(columns);
+        }
+
+        @Override
+        public void write(Object... values) {
+            try {
+                writeRow(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: quote fields containing a separator, quote or line break
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator json;
+        private final String[] columns;
+
+        NdjsonRowWriter(Writer writer, String[] columns) throws IOException {
+            this.json = JSON.createGenerator(writer);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object... values) {
+            try {
+                json.writeStartObject();
+                for (int i = 0; i < columns.length; i++) {
+                    Object value = values[i];
+                    if (value == null) {
+                        json.writeNullField(columns[i]);
+                    } else if (value instanceof BigDecimal decimal) {
+                        json.writeNumberField(columns[i], decimal);
+                    } else if (value instanceof Integer number) {
+                        json.writeNumberField(columns[i], number);
+                    } else {
+                        json.writeStringField(columns[i], value.toString());
+                    }
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+}
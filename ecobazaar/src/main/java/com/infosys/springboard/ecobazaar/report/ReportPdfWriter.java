@@ -0,0 +1,174 @@
+package com.infosys.springboard.ecobazaar.report;
+
+import com.infosys.springboard.ecobazaar.dto.SellerSalesReportDTO;
+import com.infosys.springboard.ecobazaar.dto.UserPurchaseReportDTO;
+import com.infosys.springboard.ecobazaar.service.ReportService;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renders monthly reports to PDF. Summary figures come from the (line-free)
+ * report DTO; the line table is fed from ReportService's line stream into an
+ * iText large table that is flushed every {@link #FLUSH_EVERY} rows, so finished
+ * pages go out to the response while later lines are still being read. Memory
+ * use does not grow with the number of lines.
+ */
+@Component
+public class ReportPdfWriter {
+
+    private static final int FLUSH_EVERY = 200;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final ReportService reportService;
+
+    public ReportPdfWriter(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    public void writeUserReport(UserPurchaseReportDTO report, OutputStream out) throws IOException {
+        try (Document document = open(out)) {
+            document.add(new Paragraph("Purchase Report - " + report.getUserName()).setFontSize(16).setBold());
+            document.add(new Paragraph("Month: " + report.getMonth()));
+
+            Table summary = new Table(2);
+            summary.addCell("Orders").addCell(String.valueOf(report.getTotalOrders()));
+            summary.addCell("Items bought").addCell(String.valueOf(report.getTotalItemsBought()));
+            summary.addCell("Total spent").addCell(money(report.getTotalSpent()));
+            summary.addCell("Carbon emitted (kg)").addCell(number(report.getTotalCarbonEmitted()));
+            if (report.getCarbonImpactDetails() != null) {
+                summary.addCell("Estimated carbon saved (kg)")
+                        .addCell(number(report.getCarbonImpactDetails().getEstimatedCarbonSaved()));
+            }
+            document.add(summary);
+
+            Table categories = new Table(UnitValue.createPercentArray(new float[]{4, 2, 3, 3, 2})).useAllAvailableWidth();
+            header(categories, "Category", "Items", "Spent", "Carbon (kg)", "Orders");
+            for (UserPurchaseReportDTO.CategoryStatsDTO stats : report.getCategoryBreakdown()) {
+                categories.addCell(stats.getCategory())
+                        .addCell(String.valueOf(stats.getItemCount()))
+                        .addCell(money(stats.getTotalSpent()))
+                        .addCell(number(stats.getTotalCarbonEmitted()))
+                        .addCell(String.valueOf(stats.getOrderCount()));
+            }
+            document.add(new Paragraph("By category").setBold());
+            document.add(categories);
+
+            document.add(new Paragraph("Items bought").setBold());
+            Table lines = new Table(UnitValue.createPercentArray(new float[]{3, 5, 3, 3, 2, 2, 2, 2, 3}), true)
+                    .useAllAvailableWidth();
+            header(lines, "Date", "Product", "Category", "Eco rating", "Qty", "Price", "Total", "Carbon (kg)", "Seller");
+            document.add(lines);
+
+            int[] rows = {0};
+            reportService.forEachBoughtLine(report.getUserId(), YearMonth.parse(report.getMonth()), line -> {
+                lines.addCell(line.orderDate().format(DATE_FORMAT))
+                        .addCell(text(line.productName()))
+                        .addCell(text(line.category()))
+                        .addCell(text(line.ecoRating()))
+                        .addCell(String.valueOf(line.quantity()))
+                        .addCell(money(line.price()))
+                        .addCell(money(line.subtotal()))
+                        .addCell(number(line.totalCarbon()))
+                        .addCell(text(line.sellerName()));
+                if (++rows[0] % FLUSH_EVERY == 0) {
+                    lines.flush();
+                }
+            });
+            lines.complete();
+        }
+    }
+
+    public void writeSellerReport(SellerSalesReportDTO report, OutputStream out) throws IOException {
+        try (Document document = open(out)) {
+            document.add(new Paragraph("Sales Report - " + report.getSellerName()).setFontSize(16).setBold());
+            document.add(new Paragraph("Month: " + report.getMonth()));
+
+            Table summary = new Table(2);
+            summary.addCell("Orders").addCell(String.valueOf(report.getTotalOrders()));
+            summary.addCell("Items sold").addCell(String.valueOf(report.getTotalItemsSold()));
+            summary.addCell("Revenue").addCell(money(report.getTotalRevenue()));
+            summary.addCell("Carbon impact (kg)").addCell(number(report.getTotalCarbonImpact()));
+            document.add(summary);
+
+            Table categories = new Table(UnitValue.createPercentArray(new float[]{4, 2, 3, 3, 2})).useAllAvailableWidth();
+            header(categories, "Category", "Items", "Revenue", "Carbon (kg)", "Orders");
+            for (SellerSalesReportDTO.CategoryStatsDTO stats : report.getCategoryBreakdown()) {
+                categories.addCell(stats.getCategory())
+                        .addCell(String.valueOf(stats.getItemCount()))
+                        .addCell(money(stats.getTotalRevenue()))
+                        .addCell(number(stats.getTotalCarbonEmitted()))
+                        .addCell(String.valueOf(stats.getOrderCount()));
+            }
+            document.add(new Paragraph("By category").setBold());
+            document.add(categories);
+
+            document.add(new Paragraph("Items sold").setBold());
+            Table lines = new Table(UnitValue.createPercentArray(new float[]{3, 5, 3, 3, 2, 2, 2, 2, 3}), true)
+                    .useAllAvailableWidth();
+            header(lines, "Date", "Product", "Category", "Eco rating", "Qty", "Price", "Revenue", "Carbon (kg)", "Buyer");
+            document.add(lines);
+
+            int[] rows = {0};
+            reportService.forEachSoldLine(report.getSellerId(), YearMonth.parse(report.getMonth()), line -> {
+                lines.addCell(line.orderDate().format(DATE_FORMAT))
+                        .addCell(text(line.productName()))
+                        .addCell(text(line.category()))
+                        .addCell(text(line.ecoRating()))
+                        .addCell(String.valueOf(line.quantity()))
+                        .addCell(money(line.price()))
+                        .addCell(money(line.subtotal()))
+                        .addCell(number(line.totalCarbon()))
+                        .addCell(text(line.buyerName()));
+                if (++rows[0] % FLUSH_EVERY == 0) {
+                    lines.flush();
+                }
+            });
+            lines.complete();
+        }
+    }
+
+    // Landscape A4. Closing the document must not close the servlet stream, which Spring owns.
+    private static Document open(OutputStream out) {
+        OutputStream target = new BufferedOutputStream(out, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        Document document = new Document(new PdfDocument(new PdfWriter(target)), PageSize.A4.rotate());
+        document.setFontSize(9);
+        return document;
+    }
+
+    private static void header(Table table, String... titles) {
+        for (String title : titles) {
+            table.addHeaderCell(new Paragraph(title).setBold());
+        }
+    }
+
+    private static String text(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String money(BigDecimal value) {
+        return value != null ? "Rs. " + value.toPlainString() : "";
+    }
+
+    private static String number(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+}
@@ -2,6 +2,7 @@ package com.infosys.springboard.ecobazaar.repository;
 
 import com.infosys.springboard.ecobazaar.entity.Cart;
 import com.infosys.springboard.ecobazaar.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,8 +11,11 @@ import java.util.Optional;
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     
+    // Carts are always used with their lines and products: load them in one statement
+    @EntityGraph(attributePaths = {"items", "items.product"})
     Optional<Cart> findByUser(User user);
     
+    @EntityGraph(attributePaths = {"items", "items.product"})
     Optional<Cart> findByUserId(Long userId);
     
     void deleteByUserId(Long userId);
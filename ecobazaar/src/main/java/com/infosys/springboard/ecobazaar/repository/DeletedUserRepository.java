@@ -0,0 +1,23 @@
+package com.infosys.springboard.ecobazaar.repository;
+
+import com.infosys.springboard.ecobazaar.entity.DeletedUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeletedUserRepository extends JpaRepository<DeletedUser, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO deleted_users (user_id, deleted_at) VALUES (:userId, NOW())", nativeQuery = true)
+    int record(@Param("userId") Long userId);
+
+    // Older tombstones no longer matter: every token issued before those deletions has expired
+    @Query(value = "SELECT user_id FROM deleted_users " +
+                   "WHERE deleted_at > TIMESTAMPADD(SECOND, -:seconds, NOW())", nativeQuery = true)
+    List<Long> findIdsDeletedWithin(@Param("seconds") long seconds);
+}
@@ -0,0 +1,62 @@
+package com.infosys.springboard.ecobazaar.repository;
+
+import com.infosys.springboard.ecobazaar.entity.FlashSaleLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Flash-sale leases. Expiry is always compared with the database clock (NOW()).
+ */
+@Repository
+public interface FlashSaleLeaseRepository extends JpaRepository<FlashSaleLease, Long> {
+
+    // Units granted but not yet sold, over all leases of a product
+    @Query(value = "SELECT COALESCE(SUM(l.units - COALESCE((SELECT SUM(oi.quantity) FROM order_items oi " +
+                   "WHERE oi.flash_lease_id = l.id), 0)), 0) FROM flash_sale_leases l " +
+                   "WHERE l.product_id = :productId", nativeQuery = true)
+    long sumUnsold(@Param("productId") Long productId);
+
+    @Query(value = "SELECT id FROM flash_sale_leases WHERE product_id = :productId AND expires_at < NOW()",
+           nativeQuery = true)
+    List<Long> findExpiredIds(@Param("productId") Long productId);
+
+    // Deleted by id so the delete locks only the expired rows, not the live leases being renewed
+    @Modifying
+    @Query(value = "DELETE FROM flash_sale_leases WHERE id IN (:ids) AND expires_at < NOW()", nativeQuery = true)
+    int deleteExpired(@Param("ids") List<Long> ids);
+
+    // Sets the expiry of a lease just created
+    @Modifying
+    @Query(value = "UPDATE flash_sale_leases SET expires_at = NOW() + INTERVAL :seconds SECOND WHERE id = :id",
+           nativeQuery = true)
+    int start(@Param("id") Long id, @Param("seconds") int seconds);
+
+    // Adds units and pushes the expiry out. 0 rows when the lease expired or was reclaimed:
+    // its node may have stopped selling from it and another node may have taken its units
+    @Modifying
+    @Query(value = "UPDATE flash_sale_leases SET units = units + :units, " +
+                   "expires_at = NOW() + INTERVAL :seconds SECOND WHERE id = :id AND expires_at > NOW()",
+           nativeQuery = true)
+    int extend(@Param("id") Long id, @Param("units") int units, @Param("seconds") int seconds);
+
+    // Expired now, so no node can renew them or be granted more units under them
+    @Modifying
+    @Query(value = "UPDATE flash_sale_leases SET expires_at = NOW() WHERE product_id = :productId",
+           nativeQuery = true)
+    int expireByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query(value = "DELETE FROM flash_sale_leases WHERE product_id = :productId", nativeQuery = true)
+    int deleteByProductId(@Param("productId") Long productId);
+
+    // Expire within :seconds instead of at the usual expiry (their node stopped selling from them)
+    @Modifying
+    @Query(value = "UPDATE flash_sale_leases SET expires_at = LEAST(expires_at, NOW() + INTERVAL :seconds SECOND) " +
+                   "WHERE id IN (:ids)", nativeQuery = true)
+    int release(@Param("ids") List<Long> ids, @Param("seconds") int seconds);
+}
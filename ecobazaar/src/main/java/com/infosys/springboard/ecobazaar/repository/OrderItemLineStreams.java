@@ -0,0 +1,37 @@
+package com.infosys.springboard.ecobazaar.repository;
+
+import com.infosys.springboard.ecobazaar.dto.BoughtLine;
+import com.infosys.springboard.ecobazaar.dto.SoldLine;
+import com.infosys.springboard.ecobazaar.entity.Order;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Forward-only streams of report lines for the PDF and CSV/NDJSON downloads,
+ * part of {@link OrderItemRepository}.
+ */
+public interface OrderItemLineStreams {
+
+    /**
+     * A seller's lines in the counted orders of a date range, oldest first.
+     * Must be consumed inside a transaction and closed.
+     */
+    Stream<SoldLine> streamSoldLines(Long sellerId,
+                                     LocalDateTime startDate,
+                                     LocalDateTime endDate,
+                                     Order.OrderStatus cancelled,
+                                     Order.ReturnStatus returned);
+
+    /**
+     * A buyer's lines in the counted orders of a date range, oldest first.
+     * The seller is the one the line was sold by (oi.sellerId), not the product's
+     * current owner; lines from before that column was filled fall back to the owner.
+     * Must be consumed inside a transaction and closed.
+     */
+    Stream<BoughtLine> streamBoughtLines(Long userId,
+                                         LocalDateTime startDate,
+                                         LocalDateTime endDate,
+                                         Order.OrderStatus cancelled,
+                                         Order.ReturnStatus returned);
+}
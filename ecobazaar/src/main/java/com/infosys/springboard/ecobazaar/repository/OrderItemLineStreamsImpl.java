@@ -0,0 +1,72 @@
+package com.infosys.springboard.ecobazaar.repository;
+
+import com.infosys.springboard.ecobazaar.dto.BoughtLine;
+import com.infosys.springboard.ecobazaar.dto.SoldLine;
+import com.infosys.springboard.ecobazaar.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Streams report lines with the fetch size from reports.lines.fetch-size. The default,
+ * Integer.MIN_VALUE, makes Connector/J stream rows one at a time for these statements
+ * only, instead of switching the whole connection to server-side cursors. H2 rejects a
+ * negative fetch size, so the h2 test profile sets a positive one.
+ */
+public class OrderItemLineStreamsImpl implements OrderItemLineStreams {
+
+    private static final String SOLD_LINES = "SELECT new com.infosys.springboard.ecobazaar.dto.SoldLine(" +
+            "p.name, oi.quantity, oi.price, oi.subtotal, oi.carbonImpact, oi.totalCarbon, o.orderDate, " +
+            "COALESCE(oi.category, p.category), COALESCE(oi.ecoRating, p.ecoRating), u.name) " +
+            "FROM OrderItem oi JOIN oi.order o JOIN o.user u JOIN oi.product p " +
+            "WHERE oi.sellerId = :sellerId AND oi.orderDate BETWEEN :startDate AND :endDate " +
+            "AND oi.orderStatus <> :cancelled " +
+            "AND (o.returnStatus IS NULL OR o.returnStatus <> :returned) " +
+            "ORDER BY oi.orderDate, oi.id";
+
+    private static final String BOUGHT_LINES = "SELECT new com.infosys.springboard.ecobazaar.dto.BoughtLine(" +
+            "p.name, COALESCE(oi.category, p.category), COALESCE(oi.ecoRating, p.ecoRating), " +
+            "oi.quantity, oi.price, oi.subtotal, oi.carbonImpact, oi.totalCarbon, o.orderDate, s.name) " +
+            "FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+            "LEFT JOIN User s ON s.id = COALESCE(oi.sellerId, p.seller.id) " +
+            "WHERE o.user.id = :userId AND o.orderDate BETWEEN :startDate AND :endDate " +
+            "AND o.status <> :cancelled " +
+            "AND (o.returnStatus IS NULL OR o.returnStatus <> :returned) " +
+            "ORDER BY o.orderDate, oi.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${reports.lines.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int fetchSize;
+
+    @Override
+    public Stream<SoldLine> streamSoldLines(Long sellerId, LocalDateTime startDate, LocalDateTime endDate,
+                                            Order.OrderStatus cancelled, Order.ReturnStatus returned) {
+        return entityManager.createQuery(SOLD_LINES, SoldLine.class)
+                .setParameter("sellerId", sellerId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .setParameter("cancelled", cancelled)
+                .setParameter("returned", returned)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<BoughtLine> streamBoughtLines(Long userId, LocalDateTime startDate, LocalDateTime endDate,
+                                                Order.OrderStatus cancelled, Order.ReturnStatus returned) {
+        return entityManager.createQuery(BOUGHT_LINES, BoughtLine.class)
+                .setParameter("userId", userId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .setParameter("cancelled", cancelled)
+                .setParameter("returned", returned)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
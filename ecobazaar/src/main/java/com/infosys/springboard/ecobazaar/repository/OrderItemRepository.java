@@ -1,13 +1,104 @@
 package com.infosys.springboard.ecobazaar.repository;
 
+import com.infosys.springboard.ecobazaar.dto.SalesBucket;
+import com.infosys.springboard.ecobazaar.entity.Order;
 import com.infosys.springboard.ecobazaar.entity.OrderItem;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>, OrderItemLineStreams {
     
+    @EntityGraph(attributePaths = {"product"})
     List<OrderItem> findByOrderId(Long orderId);
+
+    // Category and eco-rating snapshots for lines placed before they were recorded
+    // (or by a node running older code), filled in by the rollup catch-up. Subqueries rather
+    // than a multi-table UPDATE, so the catch-up also runs on H2.
+    @Modifying
+    @Query(value = "UPDATE order_items oi " +
+            "SET oi.category = (SELECT p.category FROM products p WHERE p.id = oi.product_id), " +
+            "oi.eco_rating = (SELECT p.eco_rating FROM products p WHERE p.id = oi.product_id) " +
+            "WHERE oi.order_id IN (:orderIds) AND (oi.category IS NULL OR oi.eco_rating IS NULL)",
+            nativeQuery = true)
+    int backfillProductSnapshots(@Param("orderIds") List<Long> orderIds);
+
+    // Seller, order date and status copies, likewise
+    @Modifying
+    @Query(value = "UPDATE order_items oi " +
+            "SET oi.seller_id = (SELECT p.seller_id FROM products p WHERE p.id = oi.product_id), " +
+            "oi.order_date = (SELECT o.order_date FROM orders o WHERE o.id = oi.order_id), " +
+            "oi.order_status = (SELECT o.status FROM orders o WHERE o.id = oi.order_id) " +
+            "WHERE oi.order_id IN (:orderIds) AND oi.seller_id IS NULL",
+            nativeQuery = true)
+    int backfillOrderSnapshots(@Param("orderIds") List<Long> orderIds);
+
+    // ===== Seller sales aggregates: counted orders of one seller in a date range =====
+    // Range scan on (seller_id, order_date); orders is only joined by id for the return status
+
+    String SELLER_LINES = "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+            "JOIN products p ON p.id = oi.product_id " +
+            "WHERE oi.seller_id = :sellerId AND oi.order_date BETWEEN :startDate AND :endDate " +
+            "AND oi.order_status <> 'CANCELLED' AND (o.return_status IS NULL OR o.return_status <> 'APPROVED') ";
+
+    String SALES_SUMS = "SUM(oi.subtotal) AS revenue, SUM(oi.total_carbon) AS carbon, " +
+            "SUM(oi.quantity) AS units, COUNT(DISTINCT o.id) AS orderCount ";
+
+    @Query(value = "SELECT DATE_FORMAT(oi.order_date, '%Y-%m-%d') AS bucket, " + SALES_SUMS + SELLER_LINES +
+            "GROUP BY DATE_FORMAT(oi.order_date, '%Y-%m-%d')",
+            nativeQuery = true)
+    List<SalesBucket> sumSellerSalesByDay(@Param("sellerId") Long sellerId,
+                                          @Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate);
+
+    @Query(value = "SELECT COALESCE(oi.category, p.category) AS bucket, " + SALES_SUMS + SELLER_LINES +
+            "GROUP BY COALESCE(oi.category, p.category)",
+            nativeQuery = true)
+    List<SalesBucket> sumSellerSalesByCategory(@Param("sellerId") Long sellerId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    @Query(value = "SELECT COALESCE(oi.eco_rating, p.eco_rating) AS bucket, " + SALES_SUMS + SELLER_LINES +
+            "GROUP BY COALESCE(oi.eco_rating, p.eco_rating)",
+            nativeQuery = true)
+    List<SalesBucket> sumSellerSalesByEcoRating(@Param("sellerId") Long sellerId,
+                                                @Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate);
+
+    // ===== Flash-sale stock not yet settled into products.stock =====
+
+    @Query("SELECT DISTINCT oi.product.id FROM OrderItem oi WHERE oi.stockPending = true")
+    List<Long> findPendingProductIds();
+
+    // FOR UPDATE SKIP LOCKED: flushers on several nodes settle disjoint lines, and lines of
+    // checkouts that have not committed yet are left for the next run
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.stockPending = true AND oi.product.id = :productId ORDER BY oi.id ASC")
+    List<OrderItem> lockPendingStock(@Param("productId") Long productId, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.stockPending = true AND oi.product.id = :productId")
+    List<OrderItem> lockAllPendingStock(@Param("productId") Long productId);
+
+    @Query("SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItem oi " +
+           "WHERE oi.stockPending = true AND oi.product.id = :productId")
+    long sumPendingStock(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("UPDATE OrderItem oi SET oi.stockPending = false WHERE oi.id IN :ids AND oi.stockPending = true")
+    int markStockSettled(@Param("ids") List<Long> ids);
 }
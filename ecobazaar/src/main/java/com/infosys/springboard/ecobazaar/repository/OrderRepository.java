@@ -1,7 +1,9 @@
 package com.infosys.springboard.ecobazaar.repository;
 
 import com.infosys.springboard.ecobazaar.entity.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,12 +11,30 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    
+
+    // Fetch plans. Order lists are serialized with their buyer, items and products,
+    // so list queries load all of them in one statement instead of one per order/item.
+    // Product.seller is not part of any graph: only its id is read (JSON ignores it).
+
+    // Seller queries filter on the seller id, date and status copied onto order_items
+    // (indexes seller_id+order_date and seller_id+order_status), not on products.seller_id.
+
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+    List<Order> findAll();
+
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
     List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
     
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
     List<Order> findByStatus(Order.OrderStatus status);
     
     List<Order> findByUserIdAndStatus(Long userId, Order.OrderStatus status);
@@ -33,9 +53,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     /**
      * Find orders by seller within a date range
      */
-    @Query("SELECT o FROM Order o JOIN o.orderItems oi " +
-           "WHERE oi.product.seller.id = :sellerId " +
-           "AND o.orderDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT o FROM Order o WHERE o.id IN (" +
+           "SELECT oi.order.id FROM OrderItem oi " +
+           "WHERE oi.sellerId = :sellerId " +
+           "AND oi.orderDate BETWEEN :startDate AND :endDate)")
     List<Order> findOrdersBySellerAndDateRange(
         @Param("sellerId") Long sellerId,
         @Param("startDate") LocalDateTime startDate,
@@ -57,10 +78,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     /**
      * Get total revenue by seller in date range
      */
-    @Query("SELECT COALESCE(SUM(oi.price * oi.quantity), 0) FROM Order o " +
-           "JOIN o.orderItems oi " +
-           "WHERE oi.product.seller.id = :sellerId " +
-           "AND o.orderDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE(SUM(oi.price * oi.quantity), 0) FROM OrderItem oi " +
+           "WHERE oi.sellerId = :sellerId " +
+           "AND oi.orderDate BETWEEN :startDate AND :endDate")
     BigDecimal getTotalRevenueBySellerAndDateRange(
         @Param("sellerId") Long sellerId,
         @Param("startDate") LocalDateTime startDate,
@@ -70,10 +90,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     /**
      * Count total products sold by seller in date range
      */
-    @Query("SELECT COALESCE(SUM(oi.quantity), 0) FROM Order o " +
-           "JOIN o.orderItems oi " +
-           "WHERE oi.product.seller.id = :sellerId " +
-           "AND o.orderDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItem oi " +
+           "WHERE oi.sellerId = :sellerId " +
+           "AND oi.orderDate BETWEEN :startDate AND :endDate")
     Integer getTotalProductsSoldBySellerAndDateRange(
         @Param("sellerId") Long sellerId,
         @Param("startDate") LocalDateTime startDate,
@@ -83,17 +102,19 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     /**
      * Find all orders containing products from a specific seller
      */
-    @Query("SELECT DISTINCT o FROM Order o JOIN o.orderItems oi " +
-           "WHERE oi.product.seller.id = :sellerId " +
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o WHERE o.id IN (" +
+           "SELECT oi.order.id FROM OrderItem oi WHERE oi.sellerId = :sellerId) " +
            "ORDER BY o.orderDate DESC")
     List<Order> findOrdersBySellerId(@Param("sellerId") Long sellerId);
     
     /**
      * Find orders by seller and status
      */
-    @Query("SELECT DISTINCT o FROM Order o JOIN o.orderItems oi " +
-           "WHERE oi.product.seller.id = :sellerId " +
-           "AND o.status = :status " +
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o WHERE o.id IN (" +
+           "SELECT oi.order.id FROM OrderItem oi " +
+           "WHERE oi.sellerId = :sellerId AND oi.orderStatus = :status) " +
            "ORDER BY o.orderDate DESC")
     List<Order> findOrdersBySellerIdAndStatus(
         @Param("sellerId") Long sellerId,
@@ -103,9 +124,35 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     /**
      * Find orders with pending return requests
      */
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
     @Query("SELECT o FROM Order o " +
            "WHERE o.returnRequested = true " +
            "AND o.returnStatus = :returnStatus " +
            "ORDER BY o.returnRequestDate DESC")
     List<Order> findOrdersByReturnStatus(@Param("returnStatus") Order.ReturnStatus returnStatus);
+
+    // ===== Purchase and seller rollups (see PurchaseRollupService) =====
+
+    int ROLLUP_BATCH = 1000;
+
+    String COUNTED = "(o.status <> 'CANCELLED' AND (o.return_status IS NULL OR o.return_status <> 'APPROVED'))";
+
+    // Orders the rollups do not include yet. Orders locked by a request changing them are
+    // skipped: that request brings them into the rollups itself (orderChanged).
+    @Query(value = "SELECT o.id FROM orders o WHERE o.rollup_counted IS NULL " +
+           "ORDER BY o.id LIMIT " + ROLLUP_BATCH + " FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockUnrolledIds();
+
+    @Modifying
+    @Query(value = "UPDATE orders o SET o.rollup_counted = " + COUNTED + " WHERE o.id IN (:ids)", nativeQuery = true)
+    int markRolledUp(@Param("ids") List<Long> ids);
+
+    // Orders whose status changed on a node that did not update the rollups
+    @Query(value = "SELECT o.id FROM orders o " +
+           "WHERE o.rollup_counted IS NOT NULL AND o.rollup_counted <> " + COUNTED, nativeQuery = true)
+    List<Long> findRollupMismatchIds();
+
+    // SELECT ... FOR UPDATE: whether the rollups include the order, read under its row lock
+    @Query(value = "SELECT o.rollup_counted FROM orders o WHERE o.id = :id FOR UPDATE", nativeQuery = true)
+    Boolean lockRollupCounted(@Param("id") Long id);
 }
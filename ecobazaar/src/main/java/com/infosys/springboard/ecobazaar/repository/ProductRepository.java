@@ -1,14 +1,21 @@
 package com.infosys.springboard.ecobazaar.repository;
 
+import com.infosys.springboard.ecobazaar.dto.ProductCard;
 import com.infosys.springboard.ecobazaar.entity.Product;
 import com.infosys.springboard.ecobazaar.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -19,9 +26,6 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Find products by seller
     List<Product> findBySeller(User seller);
     
-    // Find products by seller ID
-    List<Product> findBySellerId(Long sellerId);
-    
     // Find eco-certified products
     List<Product> findByEcoCertifiedTrue();
     
@@ -40,27 +44,120 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Find products with carbon impact below threshold
     List<Product> findByCarbonImpactLessThanEqual(BigDecimal maxCarbonImpact);
     
-    // Complex search query: name, category, and approved status
-    @Query("SELECT p FROM Product p WHERE " +
-           "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(p.category) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
-           "AND p.approved = true")
-    List<Product> searchApprovedProducts(@Param("keyword") String keyword);
-    
-    // Find approved products by eco-rating
-    List<Product> findByApprovedTrueAndEcoRating(String ecoRating);
-    
-    // Find approved products ordered by carbon impact (lowest first)
-    @Query("SELECT p FROM Product p WHERE p.approved = true ORDER BY p.carbonImpact ASC")
-    List<Product> findApprovedProductsOrderByCarbonImpact();
-    
-    // Find products awaiting approval
-    List<Product> findByApprovedFalse();
-    
-    // Find products by category and approved status
-    List<Product> findByCategoryAndApprovedTrue(String category);
-    
-    // Find approved eco-certified products
-    List<Product> findByApprovedTrueAndEcoCertifiedTrue();
+    // Count approved products by eco-rating
+    long countByApprovedTrueAndEcoRating(String ecoRating);
+
+    // ===== Catalog reload (changes made on other nodes) =====
+
+    List<Product> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    @Query("SELECT p.id FROM Product p WHERE p.approved = true")
+    List<Long> findApprovedIds();
+
+    // ===== Atomic stock changes =====
+    // The check and the write happen in one statement under the row lock, so
+    // concurrent checkouts cannot oversell. Returns the number of rows updated.
+    // Each also bumps updatedAt so other nodes' catalogs reload the product.
+
+    // 0 when the product does not have enough stock left
+    // Never matches a flash-sale product: its stock is sold through FlashSaleStock leases
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.updatedAt = LOCAL DATETIME " +
+           "WHERE p.id = :id AND p.stock >= :quantity AND p.flashSale = false")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.updatedAt = LOCAL DATETIME WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // ===== Flash sales =====
+
+    // SELECT ... FOR UPDATE: holds the row lock while a sale starts or ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Product p WHERE p.flashSale = true")
+    List<Long> findFlashSaleIds();
+
+    boolean existsByIdAndFlashSaleTrue(Long id);
+
+    @Modifying
+    @Query(value = "UPDATE products SET flash_sale_ends_at = NOW() + INTERVAL :seconds SECOND WHERE id = :id",
+           nativeQuery = true)
+    int scheduleFlashSaleEnd(@Param("id") Long id, @Param("seconds") int seconds);
+
+    @Query(value = "SELECT id FROM products WHERE flash_sale_ends_at < NOW()", nativeQuery = true)
+    List<Long> findFlashSalesDueToEnd();
+
+    // Unconditional: the flash-sale counter already guaranteed the stock
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.updatedAt = LOCAL DATETIME WHERE p.id = :id")
+    int settlePendingStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // ===== Product cards (list endpoints) =====
+    // Lists select only the ProductCard columns and a short description summary,
+    // never the full entity or its lazy seller.
+
+    String CARD_SELECT = "SELECT new com.infosys.springboard.ecobazaar.dto.ProductCard(" +
+            "p.id, p.name, SUBSTRING(p.description, 1, 160), p.category, p.price, p.stock, " +
+            "p.carbonImpact, p.ecoCertified, p.ecoRating, p.approved, p.imageUrl) FROM Product p ";
+
+    @Query(CARD_SELECT + "WHERE p.seller.id = :sellerId ORDER BY p.id ASC")
+    List<ProductCard> findCardsBySellerId(@Param("sellerId") Long sellerId);
+
+    @Query(CARD_SELECT + "ORDER BY p.id ASC")
+    List<ProductCard> findAllCards();
+
+    @Query(CARD_SELECT + "WHERE p.approved = false ORDER BY p.id ASC")
+    List<ProductCard> findPendingCards();
+
+    // ===== Keyset pagination =====
+    // Each query seeks past the last (sortKey, id) of the previous page and
+    // fetches at most `limit` rows, so no listing reads the whole table.
+
+    @Query(CARD_SELECT + "WHERE p.approved = true AND p.id > :afterId ORDER BY p.id ASC")
+    List<ProductCard> findApprovedCardPage(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(CARD_SELECT + "WHERE p.approved = true AND p.category = :category " +
+           "AND p.id > :afterId ORDER BY p.id ASC")
+    List<ProductCard> findApprovedCardsByCategory(@Param("category") String category,
+                                                  @Param("afterId") Long afterId,
+                                                  Limit limit);
+
+    @Query(CARD_SELECT + "WHERE p.approved = true AND p.ecoRating = :ecoRating " +
+           "AND p.id > :afterId ORDER BY p.id ASC")
+    List<ProductCard> findApprovedCardsByEcoRating(@Param("ecoRating") String ecoRating,
+                                                   @Param("afterId") Long afterId,
+                                                   Limit limit);
+
+    @Query(CARD_SELECT + "WHERE p.approved = true AND p.ecoCertified = true " +
+           "AND p.id > :afterId ORDER BY p.id ASC")
+    List<ProductCard> findApprovedEcoCertifiedCards(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(CARD_SELECT + "WHERE p.approved = true " +
+           "AND p.price BETWEEN :minPrice AND :maxPrice " +
+           "AND (p.price > :lastPrice OR (p.price = :lastPrice AND p.id > :lastId)) " +
+           "ORDER BY p.price ASC, p.id ASC")
+    List<ProductCard> findApprovedCardsByPriceRange(@Param("minPrice") BigDecimal minPrice,
+                                                    @Param("maxPrice") BigDecimal maxPrice,
+                                                    @Param("lastPrice") BigDecimal lastPrice,
+                                                    @Param("lastId") Long lastId,
+                                                    Limit limit);
+
+    @Query(CARD_SELECT + "WHERE p.approved = true " +
+           "AND p.carbonImpact <= :maxCarbonImpact " +
+           "AND (p.carbonImpact > :lastCarbon OR (p.carbonImpact = :lastCarbon AND p.id > :lastId)) " +
+           "ORDER BY p.carbonImpact ASC, p.id ASC")
+    List<ProductCard> findApprovedCardsByMaxCarbonImpact(@Param("maxCarbonImpact") BigDecimal maxCarbonImpact,
+                                                         @Param("lastCarbon") BigDecimal lastCarbon,
+                                                         @Param("lastId") Long lastId,
+                                                         Limit limit);
+
+    @Query(CARD_SELECT + "WHERE p.approved = true " +
+           "AND (p.carbonImpact > :lastCarbon OR (p.carbonImpact = :lastCarbon AND p.id > :lastId)) " +
+           "ORDER BY p.carbonImpact ASC, p.id ASC")
+    List<ProductCard> findApprovedCardsOrderByCarbonImpact(@Param("lastCarbon") BigDecimal lastCarbon,
+                                                           @Param("lastId") Long lastId,
+                                                           Limit limit);
 }
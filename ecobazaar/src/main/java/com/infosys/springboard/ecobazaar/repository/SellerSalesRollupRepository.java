@@ -0,0 +1,94 @@
+package com.infosys.springboard.ecobazaar.repository;
+
+import com.infosys.springboard.ecobazaar.entity.SellerSalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SellerSalesRollupRepository extends JpaRepository<SellerSalesRollup, Long> {
+
+    List<SellerSalesRollup> findBySellerIdAndSaleDateBetween(Long sellerId, LocalDate startDate, LocalDate endDate);
+
+    // See UserPurchaseRollupRepository.revisionOf
+    @Query("SELECT COUNT(r) + COALESCE(SUM(r.revision), 0) FROM SellerSalesRollup r " +
+            "WHERE r.sellerId = :sellerId AND r.saleDate BETWEEN :startDate AND :endDate")
+    long revisionOf(@Param("sellerId") Long sellerId,
+                    @Param("startDate") LocalDate startDate,
+                    @Param("endDate") LocalDate endDate);
+
+    /**
+     * Add a delta to one rollup row, creating it if needed (see UserPurchaseRollupRepository.upsert)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO seller_sales_rollups " +
+            "(seller_id, sale_date, category, eco_rating, total_revenue, total_carbon, item_count, order_count) " +
+            "VALUES (:sellerId, :saleDate, :category, :ecoRating, :revenue, :carbon, :items, :orders) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_revenue = total_revenue + VALUES(total_revenue), " +
+            "total_carbon = total_carbon + VALUES(total_carbon), " +
+            "item_count = item_count + VALUES(item_count), " +
+            "order_count = order_count + VALUES(order_count), " +
+            "revision = revision + 1",
+            nativeQuery = true)
+    int upsert(@Param("sellerId") Long sellerId,
+               @Param("saleDate") LocalDate saleDate,
+               @Param("category") String category,
+               @Param("ecoRating") String ecoRating,
+               @Param("revenue") BigDecimal revenue,
+               @Param("carbon") BigDecimal carbon,
+               @Param("items") int items,
+               @Param("orders") int orders);
+
+    // ===== Catch-up (same orders and counted rule as the purchase rollups) =====
+
+    String COUNTED_ITEMS = UserPurchaseRollupRepository.COUNTED_ITEMS;
+
+    String ADD_TOTALS = "ON DUPLICATE KEY UPDATE " +
+            "total_revenue = total_revenue + VALUES(total_revenue), " +
+            "total_carbon = total_carbon + VALUES(total_carbon), " +
+            "item_count = item_count + VALUES(item_count), " +
+            "order_count = order_count + VALUES(order_count), " +
+            "revision = revision + 1";
+
+    @Modifying
+    @Query(value = "INSERT INTO seller_sales_rollups " +
+            "(seller_id, sale_date, category, eco_rating, total_revenue, total_carbon, item_count, order_count) " +
+            "SELECT oi.seller_id, DATE(o.order_date), " +
+            "COALESCE(oi.category, p.category), COALESCE(oi.eco_rating, p.eco_rating), " +
+            "SUM(oi.subtotal), SUM(oi.total_carbon), SUM(oi.quantity), COUNT(DISTINCT o.id) " +
+            COUNTED_ITEMS +
+            "GROUP BY oi.seller_id, DATE(o.order_date), " +
+            "COALESCE(oi.category, p.category), COALESCE(oi.eco_rating, p.eco_rating) " +
+            ADD_TOTALS,
+            nativeQuery = true)
+    int backfillDetail(@Param("orderIds") List<Long> orderIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO seller_sales_rollups " +
+            "(seller_id, sale_date, category, eco_rating, total_revenue, total_carbon, item_count, order_count) " +
+            "SELECT oi.seller_id, DATE(o.order_date), COALESCE(oi.category, p.category), 'ALL', " +
+            "SUM(oi.subtotal), SUM(oi.total_carbon), SUM(oi.quantity), COUNT(DISTINCT o.id) " +
+            COUNTED_ITEMS +
+            "GROUP BY oi.seller_id, DATE(o.order_date), COALESCE(oi.category, p.category) " +
+            ADD_TOTALS,
+            nativeQuery = true)
+    int backfillCategoryTotals(@Param("orderIds") List<Long> orderIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO seller_sales_rollups " +
+            "(seller_id, sale_date, category, eco_rating, total_revenue, total_carbon, item_count, order_count) " +
+            "SELECT oi.seller_id, DATE(o.order_date), 'ALL', 'ALL', " +
+            "SUM(oi.subtotal), SUM(oi.total_carbon), SUM(oi.quantity), COUNT(DISTINCT o.id) " +
+            COUNTED_ITEMS +
+            "GROUP BY oi.seller_id, DATE(o.order_date) " +
+            ADD_TOTALS,
+            nativeQuery = true)
+    int backfillDayTotals(@Param("orderIds") List<Long> orderIds);
+}
@@ -0,0 +1,116 @@
+package com.infosys.springboard.ecobazaar.repository;
+
+import com.infosys.springboard.ecobazaar.entity.UserPurchaseRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface UserPurchaseRollupRepository extends JpaRepository<UserPurchaseRollup, Long> {
+
+    List<UserPurchaseRollup> findByUserIdAndMonth(Long userId, String month);
+
+    // yyyy-MM strings sort chronologically, so BETWEEN selects whole months
+    List<UserPurchaseRollup> findByUserIdAndMonthBetween(Long userId, String fromMonth, String toMonth);
+
+    /**
+     * Grows with every insert or upsert into the user's month (see UserPurchaseRollup.revision):
+     * an index range read that tells ReportCache whether a cached report is still current
+     */
+    @Query("SELECT COUNT(r) + COALESCE(SUM(r.revision), 0) FROM UserPurchaseRollup r " +
+            "WHERE r.userId = :userId AND r.month = :month")
+    long revisionOf(@Param("userId") Long userId, @Param("month") String month);
+
+    /**
+     * Add a delta to one rollup row, creating it if needed (MySQL upsert, a single
+     * statement under the row lock - concurrent orders cannot lose updates)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_purchase_rollups " +
+            "(user_id, month, category, eco_rating, total_spent, total_carbon, item_count, order_count) " +
+            "VALUES (:userId, :month, :category, :ecoRating, :spent, :carbon, :items, :orders) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_spent = total_spent + VALUES(total_spent), " +
+            "total_carbon = total_carbon + VALUES(total_carbon), " +
+            "item_count = item_count + VALUES(item_count), " +
+            "order_count = order_count + VALUES(order_count), " +
+            "revision = revision + 1",
+            nativeQuery = true)
+    int upsert(@Param("userId") Long userId,
+               @Param("month") String month,
+               @Param("category") String category,
+               @Param("ecoRating") String ecoRating,
+               @Param("spent") BigDecimal spent,
+               @Param("carbon") BigDecimal carbon,
+               @Param("items") int items,
+               @Param("orders") int orders);
+
+    // ===== Catch-up: add orders the rollups do not include yet (orders.rollup_counted IS NULL) =====
+    // Counted orders are the ones not cancelled and without an approved return. Every statement
+    // adds to existing rows, so a batch can be applied while new orders keep updating them.
+
+    String COUNTED_ITEMS = "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+            "JOIN products p ON p.id = oi.product_id " +
+            "WHERE o.id IN (:orderIds) " +
+            "AND o.status <> 'CANCELLED' AND (o.return_status IS NULL OR o.return_status <> 'APPROVED') ";
+
+    // yyyy-MM of the order date, from functions MySQL and H2 both have (H2 lacks DATE_FORMAT)
+    String ORDER_MONTH = "CONCAT(YEAR(o.order_date), '-', LPAD(MONTH(o.order_date), 2, '0'))";
+
+    String ADD_TOTALS = "ON DUPLICATE KEY UPDATE " +
+            "total_spent = total_spent + VALUES(total_spent), " +
+            "total_carbon = total_carbon + VALUES(total_carbon), " +
+            "item_count = item_count + VALUES(item_count), " +
+            "order_count = order_count + VALUES(order_count), " +
+            "revision = revision + 1";
+
+    // MySQL named lock, held by the connection until released: one catch-up batch at a time.
+    // Not called when rollups.catch-up.named-lock is off (H2 has neither function).
+    @Query(value = "SELECT GET_LOCK(:name, :timeoutSeconds)", nativeQuery = true)
+    Long lock(@Param("name") String name, @Param("timeoutSeconds") int timeoutSeconds);
+
+    @Query(value = "SELECT RELEASE_LOCK(:name)", nativeQuery = true)
+    Long unlock(@Param("name") String name);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_purchase_rollups " +
+            "(user_id, month, category, eco_rating, total_spent, total_carbon, item_count, order_count) " +
+            "SELECT o.user_id, " + ORDER_MONTH + ", " +
+            "COALESCE(oi.category, p.category), COALESCE(oi.eco_rating, p.eco_rating), " +
+            "SUM(oi.subtotal), SUM(oi.total_carbon), SUM(oi.quantity), COUNT(DISTINCT o.id) " +
+            COUNTED_ITEMS +
+            "GROUP BY o.user_id, " + ORDER_MONTH + ", " +
+            "COALESCE(oi.category, p.category), COALESCE(oi.eco_rating, p.eco_rating) " +
+            ADD_TOTALS,
+            nativeQuery = true)
+    int backfillDetail(@Param("orderIds") List<Long> orderIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_purchase_rollups " +
+            "(user_id, month, category, eco_rating, total_spent, total_carbon, item_count, order_count) " +
+            "SELECT o.user_id, " + ORDER_MONTH + ", " +
+            "COALESCE(oi.category, p.category), 'ALL', " +
+            "SUM(oi.subtotal), SUM(oi.total_carbon), SUM(oi.quantity), COUNT(DISTINCT o.id) " +
+            COUNTED_ITEMS +
+            "GROUP BY o.user_id, " + ORDER_MONTH + ", COALESCE(oi.category, p.category) " +
+            ADD_TOTALS,
+            nativeQuery = true)
+    int backfillCategoryTotals(@Param("orderIds") List<Long> orderIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_purchase_rollups " +
+            "(user_id, month, category, eco_rating, total_spent, total_carbon, item_count, order_count) " +
+            "SELECT o.user_id, " + ORDER_MONTH + ", " +
+            "'ALL', 'ALL', " +
+            "SUM(oi.subtotal), SUM(oi.total_carbon), SUM(oi.quantity), COUNT(DISTINCT o.id) " +
+            COUNTED_ITEMS +
+            "GROUP BY o.user_id, " + ORDER_MONTH + " " +
+            ADD_TOTALS,
+            nativeQuery = true)
+    int backfillMonthTotals(@Param("orderIds") List<Long> orderIds);
+}
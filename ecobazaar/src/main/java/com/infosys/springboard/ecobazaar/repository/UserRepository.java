@@ -2,6 +2,7 @@ package com.infosys.springboard.ecobazaar.repository;
 
 import com.infosys.springboard.ecobazaar.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +12,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(String role);
     List<User> findByRoleAndBanned(String role, Boolean banned);
     List<User> findByBanned(Boolean banned);
+
+    @Query("SELECT u.id FROM User u WHERE u.banned = true")
+    List<Long> findBannedIds();
 }
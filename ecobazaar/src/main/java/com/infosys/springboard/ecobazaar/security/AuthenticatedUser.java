@@ -0,0 +1,19 @@
+package com.infosys.springboard.ecobazaar.security;
+
+import java.security.Principal;
+
+/**
+ * What authentication needs to know about a user, cached by {@link PrincipalCache}.
+ * Set as the principal of every authenticated request; controllers get it with {@link CurrentUser}.
+ */
+public record AuthenticatedUser(Long id, String email, String role, boolean banned) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean hasRole(String expected) {
+        return expected.equalsIgnoreCase(role);
+    }
+}
@@ -0,0 +1,16 @@
+package com.infosys.springboard.ecobazaar.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the user the request was authenticated as, resolved by {@link CurrentUserArgumentResolver}.
+ * Declare the parameter as {@link AuthenticatedUser} (id, email, role - no query) or as the
+ * {@code User} entity when the handler needs it (loaded once per request).
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
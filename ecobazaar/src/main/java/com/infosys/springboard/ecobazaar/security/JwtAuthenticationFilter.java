@@ -1,7 +1,5 @@
 package com.infosys.springboard.ecobazaar.security;
 
-import com.infosys.springboard.ecobazaar.entity.User;
-import com.infosys.springboard.ecobazaar.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,11 +19,14 @@ import java.util.Optional;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final RevocationList revocationList;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, PrincipalCache principalCache,
+                                   RevocationList revocationList) {
         this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -39,26 +40,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
             
             try {
-                String email = jwtUtil.extractEmail(token);
+                AuthenticatedUser claims = jwtUtil.verify(token);
                 
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // Get user from database to get actual role
-                    Optional<User> userOpt = userRepository.findByEmail(email);
+                if (claims.email() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    // Id and role come from the token; only tokens issued before those
+                    // claims existed still need the (cached) user lookup
+                    Optional<AuthenticatedUser> userOpt = claims.id() != null && claims.role() != null
+                            ? Optional.of(claims)
+                            : principalCache.get(claims.email());
                     
                     if (userOpt.isPresent()) {
-                        User user = userOpt.get();
+                        AuthenticatedUser user = userOpt.get();
                         
-                        // Check if user is banned
-                        if (user.getBanned() != null && user.getBanned()) {
+                        // Check if user is banned or deleted
+                        if (user.banned() || revocationList.isRevoked(user.id())) {
                             // User is banned, don't authenticate
                             filterChain.doFilter(request, response);
                             return;
                         }
                         
                         // Create authentication with user's actual role
-                        String role = user.getRole() != null ? user.getRole() : "USER";
+                        String role = user.role();
+                        // The principal is the AuthenticatedUser itself (see CurrentUser)
                         UsernamePasswordAuthenticationToken authToken =
-                                new UsernamePasswordAuthenticationToken(email, null, 
+                                new UsernamePasswordAuthenticationToken(user, null, 
                                         Collections.singletonList(
                                                 new SimpleGrantedAuthority("ROLE_" + role)));
                         
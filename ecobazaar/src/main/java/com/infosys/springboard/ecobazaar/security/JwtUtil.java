@@ -1,10 +1,20 @@
 package com.infosys.springboard.ecobazaar.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
 @Component
 public class JwtUtil {
@@ -12,23 +22,113 @@ public class JwtUtil {
     private static final String SECRET =
             "ecobazaarsecretkeyecobazaarsecretkey123456";
 
-    public String generateToken(String email) {
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes());
+
+    public static final long TOKEN_VALIDITY_MS = 1000L * 60 * 60 * 24; // 24 hours
+
+    // Verified-token cache bounds
+    private static final int MAX_CACHED_TOKENS = 10_000;
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+
+    // Claims carried next to the email subject, so requests authenticate without a user lookup
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+
+    private record VerifiedToken(AuthenticatedUser user, long expiresAt) {}
+
+    private final LongSupplier clock;
+    private final int maxCachedTokens;
+
+    // The parser is immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser;
+
+    // SHA-256 of the token -> its claims; an entry is only trusted until the token expires
+    private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+    private volatile long nextSweep;
+
+    public JwtUtil() {
+        this(System::currentTimeMillis, MAX_CACHED_TOKENS);
+    }
+
+    // Tests: a controllable clock (issuing, verifying and cache expiry) and a smaller cache
+    JwtUtil(LongSupplier clock, int maxCachedTokens) {
+        this.clock = clock;
+        this.maxCachedTokens = maxCachedTokens;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(KEY)
+                .setClock(() -> new Date(clock.getAsLong()))
+                .build();
+    }
+
+    public String generateToken(Long userId, String email, String role) {
+        long now = clock.getAsLong();
         return Jwts.builder()
                 .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(
-                        new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)
-                ) // 24 hours
-                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLE_CLAIM, role)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TOKEN_VALIDITY_MS))
+                .signWith(KEY)
                 .compact();
     }
 
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).email();
+    }
+
+    /**
+     * User a valid token was issued to. Id and role are null for tokens issued before
+     * they were added as claims. Verified tokens are cached, so a token's signature is
+     * only checked on first use.
+     */
+    public AuthenticatedUser verify(String token) {
+        long now = clock.getAsLong();
+        String key = hash(token);
+
+        VerifiedToken cached = verified.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached.user();
+            }
+            verified.remove(key, cached);
+        }
+
+        // Throws for a bad signature or an expired token, exactly as before
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        AuthenticatedUser user = new AuthenticatedUser(
+                userId != null ? userId.longValue() : null,
+                claims.getSubject(),
+                claims.get(ROLE_CLAIM, String.class),
+                false);
+        if (claims.getExpiration() != null) {
+            remember(key, new VerifiedToken(user, claims.getExpiration().getTime()), now);
+        }
+        return user;
+    }
+
+    private void remember(String key, VerifiedToken token, long now) {
+        if (verified.size() >= maxCachedTokens && now >= nextSweep) {
+            nextSweep = now + SWEEP_INTERVAL_MS;
+            verified.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        // Still full of live tokens: skip caching, the token just gets verified again next time
+        if (verified.size() < maxCachedTokens) {
+            verified.put(key, token);
+        }
+    }
+
+    int cachedTokens() {
+        return verified.size();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
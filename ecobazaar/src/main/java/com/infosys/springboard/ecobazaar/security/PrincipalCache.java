@@ -0,0 +1,74 @@
+package com.infosys.springboard.ecobazaar.security;
+
+import com.infosys.springboard.ecobazaar.repository.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Role and ban status per email, so authenticating a request does not read the
+ * users table every time. Entries live for a short TTL; anything that changes a
+ * user's role, ban status or existence must call {@link #invalidate(String)}.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final long TTL_MS = 60_000;
+    private static final int MAX_ENTRIES = 10_000;
+
+    private record Entry(AuthenticatedUser user, long expiresAt) {}
+
+    private final UserRepository userRepository;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public PrincipalCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public Optional<AuthenticatedUser> get(String email) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > now) {
+            return Optional.of(entry.user());
+        }
+
+        Optional<AuthenticatedUser> user = userRepository.findByEmail(email)
+                .map(u -> new AuthenticatedUser(u.getId(), u.getEmail(),
+                        u.getRole() != null ? u.getRole() : "USER",
+                        Boolean.TRUE.equals(u.getBanned())));
+        if (user.isPresent()) {
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.values().removeIf(e -> e.expiresAt() <= now);
+            }
+            if (entries.size() < MAX_ENTRIES) {
+                entries.put(email, new Entry(user.get(), now + TTL_MS));
+            }
+        } else {
+            entries.remove(email);
+        }
+        return user;
+    }
+
+    /**
+     * Drop a user's entry now and, inside a transaction, again after commit -
+     * otherwise a request racing the commit could re-cache the old state for a full TTL.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        entries.remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.remove(email);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.infosys.springboard.ecobazaar.security;
+
+import com.infosys.springboard.ecobazaar.repository.DeletedUserRepository;
+import com.infosys.springboard.ecobazaar.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ids of users whose tokens must no longer authenticate: banned and deleted users.
+ * Tokens carry id and role, so this set is all JwtAuthenticationFilter checks - no
+ * database access per request.
+ *
+ * Loaded from users.banned and the deleted_users tombstones at startup, updated by
+ * AdminService on this node right away, and re-synced from the database periodically
+ * so bans and deletions made on other nodes apply here too.
+ */
+@Component
+public class RevocationList {
+
+    private static final long SYNC_INTERVAL_SECONDS = 30;
+
+    private final UserRepository userRepository;
+    private final DeletedUserRepository deletedUserRepository;
+
+    private final Set<Long> revoked = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "revocation-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RevocationList(UserRepository userRepository, DeletedUserRepository deletedUserRepository) {
+        this.userRepository = userRepository;
+        this.deletedUserRepository = deletedUserRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        sync();
+        syncer.scheduleWithFixedDelay(this::syncQuietly, SYNC_INTERVAL_SECONDS, SYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        System.out.println("Revocation list loaded: " + revoked.size() + " banned or deleted users");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncer.shutdownNow();
+    }
+
+    private void sync() {
+        List<Long> banned = userRepository.findBannedIds();
+        Set<Long> current = new HashSet<>(banned);
+        current.addAll(deletedUserRepository.findIdsDeletedWithin(JwtUtil.TOKEN_VALIDITY_MS / 1000));
+        revoked.addAll(current);
+        revoked.retainAll(current);
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            // Keep the last known set; the next run tries again
+            System.err.println("Revocation list sync failed: " + e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(Long userId) {
+        return userId != null && revoked.contains(userId);
+    }
+
+    /**
+     * Ban or delete: effective immediately, undone if the transaction rolls back
+     */
+    public void revoke(Long userId) {
+        revoked.add(userId);
+        afterCompletion(userId);
+    }
+
+    /**
+     * Unban: takes effect once the transaction commits
+     */
+    public void restore(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revoked.remove(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revoked.remove(userId);
+            }
+        });
+    }
+
+    private void afterCompletion(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    // A re-sync that read the row before our commit may have dropped it
+                    revoked.add(userId);
+                } else {
+                    revoked.remove(userId);
+                }
+            }
+        });
+    }
+}
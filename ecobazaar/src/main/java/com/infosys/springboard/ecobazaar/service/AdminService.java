@@ -1,19 +1,30 @@
 package com.infosys.springboard.ecobazaar.service;
 
 import com.infosys.springboard.ecobazaar.entity.User;
+import com.infosys.springboard.ecobazaar.repository.DeletedUserRepository;
 import com.infosys.springboard.ecobazaar.repository.UserRepository;
+import com.infosys.springboard.ecobazaar.security.PrincipalCache;
+import com.infosys.springboard.ecobazaar.security.RevocationList;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 public class AdminService {
 
     private final UserRepository userRepository;
+    private final DeletedUserRepository deletedUserRepository;
+    private final PrincipalCache principalCache;
+    private final RevocationList revocationList;
 
-    public AdminService(UserRepository userRepository) {
+    public AdminService(UserRepository userRepository, DeletedUserRepository deletedUserRepository,
+                        PrincipalCache principalCache, RevocationList revocationList) {
         this.userRepository = userRepository;
+        this.deletedUserRepository = deletedUserRepository;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
     }
 
     /**
@@ -71,6 +82,8 @@ public class AdminService {
         }
 
         user.setBanned(true);
+        revocationList.revoke(userId);
+        principalCache.invalidate(user.getEmail());
         return userRepository.save(user);
     }
 
@@ -83,6 +96,8 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         user.setBanned(false);
+        revocationList.restore(userId);
+        principalCache.invalidate(user.getEmail());
         return userRepository.save(user);
     }
 
@@ -99,6 +114,10 @@ public class AdminService {
         }
 
         userRepository.deleteById(userId);
+        // The tombstone lets every node's RevocationList keep rejecting the user's tokens
+        deletedUserRepository.record(userId);
+        revocationList.revoke(userId);
+        principalCache.invalidate(user.getEmail());
     }
 
     /**
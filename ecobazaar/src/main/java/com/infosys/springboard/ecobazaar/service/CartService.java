@@ -1,5 +1,6 @@
 package com.infosys.springboard.ecobazaar.service;
 
+import com.infosys.springboard.ecobazaar.dto.CartOperation;
 import com.infosys.springboard.ecobazaar.entity.Cart;
 import com.infosys.springboard.ecobazaar.entity.CartItem;
 import com.infosys.springboard.ecobazaar.entity.Product;
@@ -11,9 +12,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class CartService {
 
     @Autowired
@@ -79,7 +86,7 @@ public class CartService {
                 throw new RuntimeException("Total quantity exceeds available stock");
             }
 
-            item.setQuantity(newQuantity);
+            cart.updateItemQuantity(item, newQuantity);
             cartItemRepository.save(item);
         } else {
             // Create new cart item
@@ -88,8 +95,6 @@ public class CartService {
             cartItemRepository.save(newItem);
         }
 
-        // Recalculate totals
-        cart.calculateTotals();
         return cartRepository.save(cart);
     }
 
@@ -119,10 +124,9 @@ public class CartService {
             return removeFromCart(user, cartItemId);
         }
 
-        cartItem.setQuantity(quantity);
+        cart.updateItemQuantity(cartItem, quantity);
         cartItemRepository.save(cartItem);
 
-        cart.calculateTotals();
         return cartRepository.save(cart);
     }
 
@@ -144,10 +148,118 @@ public class CartService {
         cart.removeItem(cartItem);
         cartItemRepository.delete(cartItem);
 
-        cart.calculateTotals();
         return cartRepository.save(cart);
     }
 
+    /**
+     * Apply a batch of cart operations in one transaction (PATCH /cart).
+     * All products being added are loaded in one query and the cart is saved once;
+     * any invalid operation rolls back the whole batch.
+     */
+    @Transactional
+    public Cart applyOperations(User user, List<CartOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new RuntimeException("No cart operations given");
+        }
+
+        Cart cart = getOrCreateCart(user);
+
+        List<Long> productIds = operations.stream()
+                .filter(operation -> operation.getOp() == CartOperation.Type.ADD)
+                .map(CartOperation::getProductId)
+                .distinct()
+                .toList();
+        if (productIds.contains(null)) {
+            throw new RuntimeException("Product ID is required to add an item");
+        }
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Current lines, looked up by product and by cart item id
+        Map<Long, CartItem> byProductId = new HashMap<>();
+        Map<Long, CartItem> byItemId = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            byProductId.put(item.getProduct().getId(), item);
+            byItemId.put(item.getId(), item);
+        }
+
+        for (CartOperation operation : operations) {
+            if (operation.getOp() == null) {
+                throw new RuntimeException("Operation type is required");
+            }
+            switch (operation.getOp()) {
+                case ADD -> {
+                    Product product = products.get(operation.getProductId());
+                    if (product == null) {
+                        throw new RuntimeException("Product not found");
+                    }
+                    if (!product.getApproved()) {
+                        throw new RuntimeException("Product is not approved for sale");
+                    }
+                    int quantity = requirePositive(operation.getQuantity());
+                    CartItem item = byProductId.get(product.getId());
+                    int newQuantity = item != null ? item.getQuantity() + quantity : quantity;
+                    if (newQuantity > product.getStock()) {
+                        throw new RuntimeException("Insufficient stock for " + product.getName()
+                                + ". Available: " + product.getStock());
+                    }
+                    if (item == null) {
+                        item = new CartItem(cart, product, quantity);
+                        cart.addItem(item);
+                        byProductId.put(product.getId(), item);
+                    } else {
+                        cart.updateItemQuantity(item, newQuantity);
+                    }
+                }
+                case SET_QUANTITY -> {
+                    CartItem item = findLine(operation, byItemId, byProductId);
+                    if (operation.getQuantity() == null) {
+                        throw new RuntimeException("Quantity is required");
+                    }
+                    if (operation.getQuantity() <= 0) {
+                        removeLine(cart, item, byItemId, byProductId);
+                    } else if (operation.getQuantity() > item.getProduct().getStock()) {
+                        throw new RuntimeException("Insufficient stock for " + item.getProduct().getName()
+                                + ". Available: " + item.getProduct().getStock());
+                    } else {
+                        cart.updateItemQuantity(item, operation.getQuantity());
+                    }
+                }
+                case REMOVE -> removeLine(cart, findLine(operation, byItemId, byProductId), byItemId, byProductId);
+            }
+        }
+
+        // New lines are inserted and removed ones deleted by the cascade on Cart.items
+        return cartRepository.save(cart);
+    }
+
+    private static int requirePositive(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        return quantity;
+    }
+
+    private static CartItem findLine(CartOperation operation, Map<Long, CartItem> byItemId,
+                                     Map<Long, CartItem> byProductId) {
+        CartItem item = operation.getCartItemId() != null
+                ? byItemId.get(operation.getCartItemId())
+                : operation.getProductId() != null ? byProductId.get(operation.getProductId()) : null;
+        if (item == null) {
+            throw new RuntimeException("Cart item not found");
+        }
+        return item;
+    }
+
+    private static void removeLine(Cart cart, CartItem item, Map<Long, CartItem> byItemId,
+                                   Map<Long, CartItem> byProductId) {
+        cart.removeItem(item);
+        byProductId.remove(item.getProduct().getId());
+        if (item.getId() != null) {
+            byItemId.remove(item.getId());
+        }
+    }
+
     /**
      * Clear all items from cart
      */
@@ -1,18 +1,25 @@
 package com.infosys.springboard.ecobazaar.service;
 
+import com.infosys.springboard.ecobazaar.catalog.ProductChangedEvent;
 import com.infosys.springboard.ecobazaar.entity.*;
+import com.infosys.springboard.ecobazaar.inventory.FlashSaleStock;
 import com.infosys.springboard.ecobazaar.repository.CartRepository;
 import com.infosys.springboard.ecobazaar.repository.OrderRepository;
 import com.infosys.springboard.ecobazaar.repository.ProductRepository;
 import com.infosys.springboard.ecobazaar.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
+@Transactional(readOnly = true)
 public class OrderService {
 
     @Autowired
@@ -30,6 +37,47 @@ public class OrderService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FlashSaleStock flashSaleStock;
+
+    @Autowired
+    private PurchaseRollupService purchaseRollupService;
+
+    /**
+     * Notify the product catalog that stock changed for the products in an order
+     */
+    private void publishStockChange(Order order) {
+        List<Long> productIds = order.getOrderItems().stream()
+                .map(item -> item.getProduct().getId())
+                .distinct()
+                .toList();
+        eventPublisher.publishEvent(new ProductChangedEvent(productIds));
+    }
+
+    /**
+     * Total quantity per product, ordered by product id.
+     * Stock rows are always updated in this order so concurrent checkouts cannot deadlock.
+     */
+    private Map<Long, Integer> quantitiesByProductId(List<OrderItem> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * Put an order's quantities back on the shelf with atomic increments
+     */
+    private void restoreStock(Order order) {
+        quantitiesByProductId(order.getOrderItems()).forEach((productId, quantity) -> {
+            productRepository.incrementStock(productId, quantity);
+        });
+    }
+
     /**
      * Create order from cart
      */
@@ -43,19 +91,11 @@ public class OrderService {
             throw new RuntimeException("Cannot create order from empty cart");
         }
 
-        // Validate stock availability for all items
-        for (CartItem cartItem : cart.getItems()) {
-            Product product = cartItem.getProduct();
-            if (product.getStock() < cartItem.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
-            }
-        }
-
         // Create order
         Order order = new Order(user, cart.getTotalPrice(), cart.getTotalCarbon(), cart.getTotalItems());
         order.setStatus(Order.OrderStatus.PENDING);
 
-        // Create order items and update product stock
+        // Create order items
         for (CartItem cartItem : cart.getItems()) {
             OrderItem orderItem = new OrderItem(
                     cartItem.getProduct(),
@@ -64,15 +104,51 @@ public class OrderService {
                     cartItem.getCarbonImpact()
             );
             order.addOrderItem(orderItem);
+        }
 
-            // Reduce product stock
-            Product product = cartItem.getProduct();
-            product.setStock(product.getStock() - cartItem.getQuantity());
-            productRepository.save(product);
+        // Reduce product stock: one conditional UPDATE per product, in product id order.
+        // The row count decides - 0 means not enough stock, and the exception rolls
+        // back every decrement already applied along with the order.
+        // Flash-sale products take from FlashSaleStock instead and are settled later.
+        Map<Long, Long> flashLeases = new HashMap<>();
+        for (Map.Entry<Long, Integer> line : quantitiesByProductId(order.getOrderItems()).entrySet()) {
+            Long productId = line.getKey();
+            int quantity = line.getValue();
+            Long leaseId = null;
+            boolean taken;
+            if (flashSaleStock.isActive(productId)) {
+                leaseId = flashSaleStock.reserve(productId, quantity);
+                taken = leaseId != null;
+            } else {
+                taken = productRepository.decrementStock(productId, quantity) > 0;
+                // No row also matches a product whose sale this node has not seen start yet
+                if (!taken && flashSaleStock.join(productId)) {
+                    leaseId = flashSaleStock.reserve(productId, quantity);
+                    taken = leaseId != null;
+                }
+            }
+            if (leaseId != null) {
+                flashLeases.put(productId, leaseId);
+            }
+            if (!taken) {
+                String productName = order.getOrderItems().stream()
+                        .filter(item -> item.getProduct().getId().equals(line.getKey()))
+                        .findFirst()
+                        .map(item -> item.getProduct().getName())
+                        .orElse(String.valueOf(line.getKey()));
+                throw new RuntimeException("Insufficient stock for product: " + productName);
+            }
+        }
+        for (OrderItem item : order.getOrderItems()) {
+            Long leaseId = flashLeases.get(item.getProduct().getId());
+            item.setStockPending(leaseId != null);
+            item.setFlashLeaseId(leaseId);
         }
 
         // Save order
         Order savedOrder = orderRepository.save(order);
+        publishStockChange(savedOrder);
+        purchaseRollupService.orderPlaced(savedOrder);
 
         // Clear cart
         cartService.clearCart(user);
@@ -120,7 +196,7 @@ public class OrderService {
      * Get order by ID
      */
     public Order getOrderById(Long orderId, Long userId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         // Verify order belongs to user
@@ -136,10 +212,11 @@ public class OrderService {
      */
     @Transactional
     public Order updateOrderStatus(Long orderId, Order.OrderStatus status) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         order.setStatus(status);
+        purchaseRollupService.orderChanged(order);
 
         if (status == Order.OrderStatus.DELIVERED) {
             order.setDeliveredDate(LocalDateTime.now());
@@ -166,13 +243,11 @@ public class OrderService {
         }
 
         // Restore product stock
-        for (OrderItem orderItem : order.getOrderItems()) {
-            Product product = orderItem.getProduct();
-            product.setStock(product.getStock() + orderItem.getQuantity());
-            productRepository.save(product);
-        }
+        restoreStock(order);
+        publishStockChange(order);
 
         order.setStatus(Order.OrderStatus.CANCELLED);
+        purchaseRollupService.orderChanged(order);
         return orderRepository.save(order);
     }
 
@@ -219,12 +294,12 @@ public class OrderService {
      */
     @Transactional
     public Order updateOrderStatusBySeller(Long orderId, Long sellerId, Order.OrderStatus status) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         // Verify seller owns at least one product in the order
         boolean hasSellerProduct = order.getOrderItems().stream()
-                .anyMatch(item -> item.getProduct().getSeller().getId().equals(sellerId));
+                .anyMatch(item -> sellerId.equals(item.getSellerId()));
 
         if (!hasSellerProduct) {
             throw new RuntimeException("Order does not contain your products");
@@ -268,12 +343,12 @@ public class OrderService {
      */
     @Transactional
     public Order approveReturn(Long orderId, Long sellerId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         // Verify seller owns products in the order
         boolean hasSellerProduct = order.getOrderItems().stream()
-                .anyMatch(item -> item.getProduct().getSeller().getId().equals(sellerId));
+                .anyMatch(item -> sellerId.equals(item.getSellerId()));
 
         if (!hasSellerProduct) {
             throw new RuntimeException("Order does not contain your products");
@@ -289,13 +364,11 @@ public class OrderService {
 
         order.setReturnStatus(Order.ReturnStatus.APPROVED);
         order.setReturnResolvedDate(LocalDateTime.now());
+        purchaseRollupService.orderChanged(order);
 
         // Restore product stock
-        for (OrderItem orderItem : order.getOrderItems()) {
-            Product product = orderItem.getProduct();
-            product.setStock(product.getStock() + orderItem.getQuantity());
-            productRepository.save(product);
-        }
+        restoreStock(order);
+        publishStockChange(order);
 
         // Deduct eco score from user ONLY if order was delivered
         // (Eco score is only awarded on DELIVERED status)
@@ -317,12 +390,12 @@ public class OrderService {
      */
     @Transactional
     public Order rejectReturn(Long orderId, Long sellerId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
         // Verify seller owns products in the order
         boolean hasSellerProduct = order.getOrderItems().stream()
-                .anyMatch(item -> item.getProduct().getSeller().getId().equals(sellerId));
+                .anyMatch(item -> sellerId.equals(item.getSellerId()));
 
         if (!hasSellerProduct) {
             throw new RuntimeException("Order does not contain your products");
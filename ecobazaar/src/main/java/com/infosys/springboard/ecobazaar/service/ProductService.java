@@ -1,21 +1,35 @@
 package com.infosys.springboard.ecobazaar.service;
 
+import com.infosys.springboard.ecobazaar.catalog.ProductCatalog;
+import com.infosys.springboard.ecobazaar.catalog.ProductChangedEvent;
+import com.infosys.springboard.ecobazaar.catalog.ProductQuery;
+import com.infosys.springboard.ecobazaar.dto.CursorPage;
+import com.infosys.springboard.ecobazaar.dto.FacetedPage;
+import com.infosys.springboard.ecobazaar.dto.PageCursor;
+import com.infosys.springboard.ecobazaar.dto.ProductCard;
 import com.infosys.springboard.ecobazaar.entity.Product;
 import com.infosys.springboard.ecobazaar.entity.User;
 import com.infosys.springboard.ecobazaar.repository.ProductRepository;
 import com.infosys.springboard.ecobazaar.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+// Reads run in read-only transactions (no entity snapshots, no flush); writes opt back in
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class ProductService {
 
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private ProductRepository productRepository;
 
@@ -25,9 +39,16 @@ public class ProductService {
     @Autowired
     private CarbonCalculationService carbonCalculationService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
     /**
      * Create a new product
      */
+    @Transactional
     public Product createProduct(Product product, Long sellerId) {
         // Find seller
         User seller = userRepository.findById(sellerId)
@@ -50,7 +71,9 @@ public class ProductService {
         // Products require admin approval by default
         product.setApproved(false);
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId()));
+        return savedProduct;
     }
 
     /**
@@ -63,27 +86,51 @@ public class ProductService {
     /**
      * Get all products (admin only)
      */
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public List<ProductCard> getAllProducts() {
+        return productRepository.findAllCards();
+    }
+
+    /**
+     * Clamp a requested page size to [1, MAX_PAGE_SIZE]
+     */
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
     /**
-     * Get all approved products (public)
+     * Fetch one extra row so the page knows whether there is a next one
      */
-    public List<Product> getApprovedProducts() {
-        return productRepository.findByApprovedTrue();
+    private Limit fetchLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    private CursorPage<ProductCard> pageById(List<ProductCard> rows, int pageSize) {
+        return CursorPage.of(rows, pageSize, p -> new PageCursor(null, p.id()));
+    }
+
+    /**
+     * Get a page of approved products (public)
+     */
+    public CursorPage<ProductCard> getApprovedProducts(String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        return pageById(productRepository.findApprovedCardPage(after.idOrZero(), fetchLimit(size)), size);
     }
 
     /**
      * Get products by seller ID
      */
-    public List<Product> getProductsBySellerId(Long sellerId) {
-        return productRepository.findBySellerId(sellerId);
+    public List<ProductCard> getProductsBySellerId(Long sellerId) {
+        return productRepository.findCardsBySellerId(sellerId);
     }
 
     /**
      * Update product
      */
+    @Transactional
     public Product updateProduct(Long id, Product updatedProduct, Long sellerId) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -98,7 +145,10 @@ public class ProductService {
         existingProduct.setDescription(updatedProduct.getDescription());
         existingProduct.setCategory(updatedProduct.getCategory());
         existingProduct.setPrice(updatedProduct.getPrice());
-        existingProduct.setStock(updatedProduct.getStock());
+        // During a flash sale stock is owned by FlashSaleStock; it is editable again once the sale ends
+        if (!Boolean.TRUE.equals(existingProduct.getFlashSale())) {
+            existingProduct.setStock(updatedProduct.getStock());
+        }
         existingProduct.setImageUrl(updatedProduct.getImageUrl());
 
         // Update carbon impact and recalculate eco-rating
@@ -115,12 +165,15 @@ public class ProductService {
         // Reset approval status if major changes made
         existingProduct.setApproved(false);
 
-        return productRepository.save(existingProduct);
+        Product savedProduct = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
+        return savedProduct;
     }
 
     /**
      * Delete product
      */
+    @Transactional
     public void deleteProduct(Long id, Long sellerId) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -130,110 +183,152 @@ public class ProductService {
             throw new RuntimeException("You are not authorized to delete this product");
         }
 
+        if (Boolean.TRUE.equals(product.getFlashSale())) {
+            throw new RuntimeException("Cannot delete a product during a flash sale");
+        }
+
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
     }
 
     /**
      * Admin: Approve product
      */
+    @Transactional
     public Product approveProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
 
         product.setApproved(true);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
+        return savedProduct;
     }
 
     /**
      * Admin: Reject/unapprove product
      */
+    @Transactional
     public Product unapproveProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
 
         product.setApproved(false);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
+        return savedProduct;
     }
 
     /**
      * Admin: Set eco-certification manually
      */
+    @Transactional
     public Product setEcoCertification(Long id, boolean certified) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
 
         product.setEcoCertified(certified);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
+        return savedProduct;
     }
 
     /**
      * Get products pending approval
      */
-    public List<Product> getPendingProducts() {
-        return productRepository.findByApprovedFalse();
+    public List<ProductCard> getPendingProducts() {
+        return productRepository.findPendingCards();
+    }
+
+    /**
+     * Search approved products by keyword, best match first.
+     * Served from the in-memory search index; every term must match.
+     */
+    public CursorPage<ProductCard> searchProducts(String keyword, String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        return productCatalog.searchIndex().search(keyword, after, pageSize(limit));
     }
 
     /**
-     * Search approved products by keyword
+     * Combined filter/keyword/sort query with facet counts, served from the in-memory catalog
      */
-    public List<Product> searchProducts(String keyword) {
-        return productRepository.searchApprovedProducts(keyword);
+    public FacetedPage<ProductCard> queryProducts(ProductQuery query, String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        Map<Long, BigDecimal> keywordScores = query.hasKeyword()
+                ? productCatalog.searchIndex().matchScores(query.keyword())
+                : null;
+        return productCatalog.facetIndex().query(query, keywordScores, after, pageSize(limit));
     }
 
     /**
      * Filter approved products by category
      */
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategoryAndApprovedTrue(category);
+    public CursorPage<ProductCard> getProductsByCategory(String category, String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        return pageById(productRepository.findApprovedCardsByCategory(
+                category, after.idOrZero(), fetchLimit(size)), size);
     }
 
     /**
      * Filter approved products by eco-rating
      */
-    public List<Product> getProductsByEcoRating(String ecoRating) {
-        return productRepository.findByApprovedTrueAndEcoRating(ecoRating);
+    public CursorPage<ProductCard> getProductsByEcoRating(String ecoRating, String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        return pageById(productRepository.findApprovedCardsByEcoRating(
+                ecoRating, after.idOrZero(), fetchLimit(size)), size);
     }
 
     /**
      * Get eco-certified products
      */
-    public List<Product> getEcoCertifiedProducts() {
-        return productRepository.findByApprovedTrueAndEcoCertifiedTrue();
+    public CursorPage<ProductCard> getEcoCertifiedProducts(String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        return pageById(productRepository.findApprovedEcoCertifiedCards(after.idOrZero(), fetchLimit(size)), size);
     }
 
     /**
      * Get products sorted by lowest carbon impact
      */
-    public List<Product> getProductsSortedByCarbonImpact() {
-        return productRepository.findApprovedProductsOrderByCarbonImpact();
+    public CursorPage<ProductCard> getProductsSortedByCarbonImpact(String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        List<ProductCard> rows = productRepository.findApprovedCardsOrderByCarbonImpact(
+                after.sortKeyOr(PageCursor.MIN_DECIMAL), after.idOrZero(), fetchLimit(size));
+        return CursorPage.of(rows, size, p -> new PageCursor(p.carbonImpact(), p.id()));
     }
 
     /**
-     * Filter products by price range
+     * Filter approved products by price range, cheapest first
      */
-    public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        List<Product> products = productRepository.findByPriceBetween(minPrice, maxPrice);
-        // Filter only approved products
-        return products.stream()
-                .filter(Product::getApproved)
-                .toList();
+    public CursorPage<ProductCard> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
+                                                           String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        // First page: (price > min) OR (price = min AND id > 0) covers the whole range
+        List<ProductCard> rows = productRepository.findApprovedCardsByPriceRange(
+                minPrice, maxPrice, after.sortKeyOr(minPrice), after.idOrZero(), fetchLimit(size));
+        return CursorPage.of(rows, size, p -> new PageCursor(p.price(), p.id()));
     }
 
     /**
-     * Filter products by max carbon impact
+     * Filter approved products by max carbon impact, lowest first
      */
-    public List<Product> getProductsByMaxCarbonImpact(BigDecimal maxCarbonImpact) {
-        List<Product> products = productRepository.findByCarbonImpactLessThanEqual(maxCarbonImpact);
-        // Filter only approved products
-        return products.stream()
-                .filter(Product::getApproved)
-                .toList();
+    public CursorPage<ProductCard> getProductsByMaxCarbonImpact(BigDecimal maxCarbonImpact,
+                                                                String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int size = pageSize(limit);
+        List<ProductCard> rows = productRepository.findApprovedCardsByMaxCarbonImpact(
+                maxCarbonImpact, after.sortKeyOr(PageCursor.MIN_DECIMAL), after.idOrZero(), fetchLimit(size));
+        return CursorPage.of(rows, size, p -> new PageCursor(p.carbonImpact(), p.id()));
     }
 
     /**
      * Get product count by eco-rating (for analytics)
      */
     public long getProductCountByEcoRating(String ecoRating) {
-        return productRepository.findByApprovedTrueAndEcoRating(ecoRating).size();
+        return productRepository.countByApprovedTrueAndEcoRating(ecoRating);
     }
 }
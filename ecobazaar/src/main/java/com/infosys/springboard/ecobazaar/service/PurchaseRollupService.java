@@ -0,0 +1,282 @@
+package com.infosys.springboard.ecobazaar.service;
+
+import com.infosys.springboard.ecobazaar.entity.Order;
+import com.infosys.springboard.ecobazaar.entity.OrderItem;
+import com.infosys.springboard.ecobazaar.entity.UserPurchaseRollup;
+import com.infosys.springboard.ecobazaar.report.OrderChangedEvent;
+import com.infosys.springboard.ecobazaar.repository.OrderItemRepository;
+import com.infosys.springboard.ecobazaar.repository.OrderRepository;
+import com.infosys.springboard.ecobazaar.repository.SellerSalesRollupRepository;
+import com.infosys.springboard.ecobazaar.repository.UserPurchaseRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.infosys.springboard.ecobazaar.entity.UserPurchaseRollup.ALL;
+
+/**
+ * Keeps user_purchase_rollups (per buyer and month) and seller_sales_rollups
+ * (per seller and day) in step with orders. Called from OrderService inside
+ * the order's transaction, so a rollup change commits or rolls back with the order.
+ *
+ * orders.rollup_counted records whether the rollups include an order (null: not yet).
+ * Orders without it - placed before rollups existed, or by a node still running older
+ * code during a rolling deploy - are added by a catch-up that runs at startup and every
+ * minute, in batches under a MySQL named lock so nodes never add the same order twice.
+ * Databases without named locks (H2 in tests) set rollups.catch-up.named-lock=false
+ * and lock within this JVM instead, which only suits a single node.
+ * Orders whose status changed without a rollup update are reconciled at every start.
+ */
+@Service
+public class PurchaseRollupService {
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private static final String CATCH_UP_LOCK = "ecobazaar.rollup_catch_up";
+    private static final int CATCH_UP_LOCK_TIMEOUT_SECONDS = 10;
+    private static final long CATCH_UP_INTERVAL_SECONDS = 60;
+
+    private record Key(String category, String ecoRating) {}
+
+    private record SellerKey(Long sellerId, String category, String ecoRating) {}
+
+    // Rows are always upserted in these orders so concurrent orders cannot deadlock
+    private static final Comparator<Key> KEY_ORDER =
+            Comparator.comparing(Key::category).thenComparing(Key::ecoRating);
+
+    private static final Comparator<SellerKey> SELLER_KEY_ORDER =
+            Comparator.comparing(SellerKey::sellerId)
+                    .thenComparing(SellerKey::category)
+                    .thenComparing(SellerKey::ecoRating);
+
+    private static class Delta {
+        BigDecimal spent = BigDecimal.ZERO;
+        BigDecimal carbon = BigDecimal.ZERO;
+        int items = 0;
+    }
+
+    @Autowired
+    private UserPurchaseRollupRepository rollupRepository;
+
+    @Autowired
+    private SellerSalesRollupRepository sellerRollupRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${rollups.catch-up.named-lock:true}")
+    private boolean namedLock;
+
+    // Stands in for the named lock when namedLock is off
+    private final ReentrantLock localLock = new ReentrantLock();
+
+    private final ScheduledExecutorService catchUpScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rollup-catch-up");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * An order counts in purchase reports unless it was cancelled or returned
+     */
+    public static boolean isCounted(Order order) {
+        return order.getStatus() != Order.OrderStatus.CANCELLED
+                && order.getReturnStatus() != Order.ReturnStatus.APPROVED;
+    }
+
+    public void orderPlaced(Order order) {
+        apply(order, 1);
+        order.setRollupCounted(true);
+    }
+
+    /**
+     * Call after changing an order's status or return status
+     */
+    public void orderChanged(Order order) {
+        // Read under the order row lock, so this request, another node or the catch-up
+        // cannot apply the same change twice
+        boolean included = Boolean.TRUE.equals(orderRepository.lockRollupCounted(order.getId()));
+        boolean counted = isCounted(order);
+        if (counted != included) {
+            apply(order, counted ? 1 : -1);
+        }
+        order.setRollupCounted(counted);
+    }
+
+    private void apply(Order order, int sign) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        Map<SellerKey, Delta> sellerDeltas = new TreeMap<>(SELLER_KEY_ORDER);
+        for (OrderItem item : order.getOrderItems()) {
+            String category = item.getCategory() != null ? item.getCategory() : item.getProduct().getCategory();
+            String ecoRating = item.getEcoRating() != null ? item.getEcoRating() : item.getProduct().getEcoRating();
+            add(deltas, new Key(category, ecoRating), item);
+            add(deltas, new Key(category, ALL), item);
+            add(deltas, new Key(ALL, ALL), item);
+
+            Long sellerId = item.getSellerId() != null ? item.getSellerId() : item.getProduct().getSeller().getId();
+            add(sellerDeltas, new SellerKey(sellerId, category, ecoRating), item);
+            add(sellerDeltas, new SellerKey(sellerId, category, ALL), item);
+            add(sellerDeltas, new SellerKey(sellerId, ALL, ALL), item);
+        }
+
+        Long userId = order.getUser().getId();
+        // orderDate is filled in when the order is first persisted
+        LocalDateTime orderDate = order.getOrderDate() != null ? order.getOrderDate() : LocalDateTime.now();
+        String month = orderDate.format(MONTH_FORMAT);
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        deltas.forEach((key, delta) -> rollupRepository.upsert(
+                userId, month, key.category(), key.ecoRating(),
+                delta.spent.multiply(factor), delta.carbon.multiply(factor),
+                delta.items * sign, sign));
+
+        LocalDate saleDate = orderDate.toLocalDate();
+        sellerDeltas.forEach((key, delta) -> sellerRollupRepository.upsert(
+                key.sellerId(), saleDate, key.category(), key.ecoRating(),
+                delta.spent.multiply(factor), delta.carbon.multiply(factor),
+                delta.items * sign, sign));
+
+        List<Long> sellerIds = sellerDeltas.keySet().stream().map(SellerKey::sellerId).distinct().toList();
+        eventPublisher.publishEvent(new OrderChangedEvent(userId, sellerIds, month));
+    }
+
+    private static <K> void add(Map<K, Delta> deltas, K key, OrderItem item) {
+        Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+        delta.spent = delta.spent.add(item.getSubtotal());
+        delta.carbon = delta.carbon.add(item.getTotalCarbon());
+        delta.items += item.getQuantity();
+    }
+
+    /**
+     * Add the orders the rollups do not include yet, reconcile the ones whose status
+     * changed behind their back, then keep catching up in the background.
+     */
+    @PostConstruct
+    public void backfill() {
+        catchUpQuietly();
+        reconcile();
+        catchUpScheduler.scheduleWithFixedDelay(this::catchUpQuietly,
+                CATCH_UP_INTERVAL_SECONDS, CATCH_UP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        catchUpScheduler.shutdownNow();
+    }
+
+    private void catchUpQuietly() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            // The orders keep a null rollup_counted and are picked up by the next run
+            System.err.println("Rollup catch-up failed: " + e.getMessage());
+        }
+    }
+
+    // Package-private for tests, which add orders after the startup catch-up has run
+    void catchUp() {
+        int orders = 0;
+        int batch;
+        do {
+            batch = new TransactionTemplate(transactionManager).execute(status -> catchUpBatch());
+            orders += batch;
+        } while (batch == OrderRepository.ROLLUP_BATCH);
+        if (orders > 0) {
+            System.out.println("Rollups caught up with " + orders + " orders");
+        }
+    }
+
+    // One batch of orders with a null rollup_counted, added in a single transaction
+    private int catchUpBatch() {
+        // The named lock belongs to this transaction's connection. It keeps two nodes from
+        // upserting the same rollup rows in different orders; the order rows locked below keep
+        // them from adding the same order twice, even after the lock is released.
+        if (!lockCatchUp()) {
+            return 0; // another node is catching up; the next run goes on
+        }
+        try {
+            List<Long> orderIds = orderRepository.lockUnrolledIds();
+            if (orderIds.isEmpty()) {
+                return 0;
+            }
+            orderItemRepository.backfillOrderSnapshots(orderIds);
+            orderItemRepository.backfillProductSnapshots(orderIds);
+            rollupRepository.backfillDetail(orderIds);
+            rollupRepository.backfillCategoryTotals(orderIds);
+            rollupRepository.backfillMonthTotals(orderIds);
+            sellerRollupRepository.backfillDetail(orderIds);
+            sellerRollupRepository.backfillCategoryTotals(orderIds);
+            sellerRollupRepository.backfillDayTotals(orderIds);
+            orderRepository.markRolledUp(orderIds);
+            return orderIds.size();
+        } finally {
+            unlockCatchUp();
+        }
+    }
+
+    private boolean lockCatchUp() {
+        if (namedLock) {
+            return Long.valueOf(1).equals(rollupRepository.lock(CATCH_UP_LOCK, CATCH_UP_LOCK_TIMEOUT_SECONDS));
+        }
+        try {
+            return localLock.tryLock(CATCH_UP_LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void unlockCatchUp() {
+        if (namedLock) {
+            rollupRepository.unlock(CATCH_UP_LOCK);
+        } else {
+            localLock.unlock();
+        }
+    }
+
+    // Orders cancelled or returned on a node that did not update the rollups
+    private void reconcile() {
+        List<Long> orderIds = orderRepository.findRollupMismatchIds();
+        for (Long orderId : orderIds) {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    // Lock before loading, so the status compared is the committed one
+                    orderRepository.lockRollupCounted(orderId);
+                    orderRepository.findWithItemsById(orderId).ifPresent(this::orderChanged);
+                });
+            } catch (RuntimeException e) {
+                // Still mismatched, so the next start tries again
+                System.err.println("Rollup reconcile failed for order " + orderId + ": " + e.getMessage());
+            }
+        }
+        if (!orderIds.isEmpty()) {
+            System.out.println("Rollups reconciled for " + orderIds.size() + " orders");
+        }
+    }
+}
@@ -1,53 +1,65 @@
 package com.infosys.springboard.ecobazaar.service;
 
-import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.catalog.CatalogProduct;
+import com.infosys.springboard.ecobazaar.catalog.CatalogSnapshot;
+import com.infosys.springboard.ecobazaar.catalog.ProductCatalog;
+import com.infosys.springboard.ecobazaar.dto.ProductCard;
 import com.infosys.springboard.ecobazaar.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class RecommendationService {
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    /**
+     * Look up a product in the catalog snapshot.
+     * Only unapproved or out-of-stock products (which it does not return) fall back to the database.
+     */
+    private CatalogProduct findProduct(CatalogSnapshot snapshot, Long productId, String notFoundMessage) {
+        CatalogProduct product = snapshot.get(productId);
+        if (product != null) {
+            return product;
+        }
+        return productRepository.findById(productId)
+                .map(CatalogProduct::from)
+                .orElseThrow(() -> new RuntimeException(notFoundMessage));
+    }
+
     /**
      * Get greener alternatives for a product
      * Returns products in the same category with lower carbon impact
      */
-    public List<Product> getGreenerAlternatives(Long productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        // Find products in same category with lower carbon impact
-        List<Product> alternatives = productRepository.findAll().stream()
-                .filter(p -> p.getApproved() && p.getStock() > 0)
-                .filter(p -> p.getCategory().equals(product.getCategory()))
-                .filter(p -> !p.getId().equals(productId))
-                .filter(p -> p.getCarbonImpact().compareTo(product.getCarbonImpact()) < 0)
-                .sorted(Comparator.comparing(Product::getCarbonImpact))
-                .limit(5)
-                .collect(Collectors.toList());
-
-        return alternatives;
+    public List<ProductCard> getGreenerAlternatives(Long productId) {
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        CatalogProduct product = findProduct(snapshot, productId, "Product not found");
+
+        List<CatalogProduct> alternatives = productCatalog.carbonIndex()
+                .lowerCarbonThan(product.category(), product.carbonImpact(), productId, 5);
+
+        return alternatives.stream().map(ProductCard::from).toList();
     }
 
     /**
      * Calculate potential carbon savings
      */
     public Map<String, Object> calculateCarbonSavings(Long currentProductId, Long alternativeProductId, Integer quantity) {
-        Product currentProduct = productRepository.findById(currentProductId)
-                .orElseThrow(() -> new RuntimeException("Current product not found"));
-        
-        Product alternative = productRepository.findById(alternativeProductId)
-                .orElseThrow(() -> new RuntimeException("Alternative product not found"));
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        CatalogProduct currentProduct = findProduct(snapshot, currentProductId, "Current product not found");
+        CatalogProduct alternative = findProduct(snapshot, alternativeProductId, "Alternative product not found");
 
-        BigDecimal currentCarbon = currentProduct.getCarbonImpact().multiply(new BigDecimal(quantity));
-        BigDecimal alternativeCarbon = alternative.getCarbonImpact().multiply(new BigDecimal(quantity));
+        BigDecimal currentCarbon = currentProduct.carbonImpact().multiply(new BigDecimal(quantity));
+        BigDecimal alternativeCarbon = alternative.carbonImpact().multiply(new BigDecimal(quantity));
         BigDecimal savings = currentCarbon.subtract(alternativeCarbon);
         
         double savingsPercentage = savings.divide(currentCarbon, 4, java.math.RoundingMode.HALF_UP)
@@ -67,13 +79,12 @@ public class RecommendationService {
      * Get recommended eco-friendly products
      * Returns top eco-friendly products across all categories
      */
-    public List<Product> getEcoFriendlyRecommendations(int limit) {
-        return productRepository.findAll().stream()
-                .filter(p -> p.getApproved() && p.getStock() > 0)
-                .filter(p -> "ECO_FRIENDLY".equals(p.getEcoRating()))
-                .sorted(Comparator.comparing(Product::getCarbonImpact))
+    public List<ProductCard> getEcoFriendlyRecommendations(int limit) {
+        return productCatalog.snapshot().byCarbonImpact()
+                .filter(p -> "ECO_FRIENDLY".equals(p.ecoRating()))
                 .limit(limit)
-                .collect(Collectors.toList());
+                .map(ProductCard::from)
+                .toList();
     }
 
     /**
@@ -82,21 +93,23 @@ public class RecommendationService {
      */
     public List<Map<String, Object>> getCartRecommendations(List<Long> cartProductIds) {
         List<Map<String, Object>> recommendations = new ArrayList<>();
+        CatalogSnapshot snapshot = productCatalog.snapshot();
 
         for (Long productId : cartProductIds) {
             try {
-                Product product = productRepository.findById(productId).orElse(null);
-                if (product == null || "ECO_FRIENDLY".equals(product.getEcoRating())) {
+                CatalogProduct product = findProduct(snapshot, productId, "Product not found");
+                if ("ECO_FRIENDLY".equals(product.ecoRating())) {
                     continue; // Skip if already eco-friendly
                 }
 
-                List<Product> alternatives = getGreenerAlternatives(productId);
+                List<CatalogProduct> alternatives = productCatalog.carbonIndex()
+                        .lowerCarbonThan(product.category(), product.carbonImpact(), productId, 5);
                 if (!alternatives.isEmpty()) {
                     Map<String, Object> recommendation = new HashMap<>();
-                    recommendation.put("currentProduct", product);
-                    recommendation.put("alternatives", alternatives);
+                    recommendation.put("currentProduct", ProductCard.from(product));
+                    recommendation.put("alternatives", alternatives.stream().map(ProductCard::from).toList());
                     recommendation.put("potentialSavings", 
-                        product.getCarbonImpact().subtract(alternatives.get(0).getCarbonImpact()).doubleValue());
+                        product.carbonImpact().subtract(alternatives.get(0).carbonImpact()).doubleValue());
                     recommendations.add(recommendation);
                 }
             } catch (Exception e) {
@@ -111,40 +124,31 @@ public class RecommendationService {
     /**
      * Get similar products (same category, similar price range)
      */
-    public List<Product> getSimilarProducts(Long productId, int limit) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+    public List<ProductCard> getSimilarProducts(Long productId, int limit) {
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        CatalogProduct product = findProduct(snapshot, productId, "Product not found");
 
         // Widened to ±40% for better matching (was ±30%)
-        BigDecimal priceMin = product.getPrice().multiply(new BigDecimal("0.6"));
-        BigDecimal priceMax = product.getPrice().multiply(new BigDecimal("1.4"));
-
-        return productRepository.findAll().stream()
-                .filter(p -> p.getApproved() && p.getStock() > 0)
-                .filter(p -> !p.getId().equals(productId))
-                .filter(p -> p.getCategory().equals(product.getCategory()))
-                .filter(p -> p.getPrice().compareTo(priceMin) >= 0 && p.getPrice().compareTo(priceMax) <= 0)
-                .sorted(Comparator.comparing(Product::getCarbonImpact))
+        BigDecimal priceMin = product.price().multiply(new BigDecimal("0.6"));
+        BigDecimal priceMax = product.price().multiply(new BigDecimal("1.4"));
+
+        return productCatalog.carbonIndex().inCategory(product.category()).stream()
+                .filter(p -> !p.id().equals(productId))
+                .filter(p -> p.price().compareTo(priceMin) >= 0 && p.price().compareTo(priceMax) <= 0)
                 .limit(limit)
-                .collect(Collectors.toList());
+                .map(ProductCard::from)
+                .toList();
     }
 
     /**
      * Get best eco-value products
      * Products with best balance of price and carbon impact
      */
-    public List<Product> getBestEcoValueProducts(String category, int limit) {
-        return productRepository.findAll().stream()
-                .filter(p -> p.getApproved() && p.getStock() > 0)
-                .filter(p -> category == null || p.getCategory().equals(category))
-                .sorted((p1, p2) -> {
-                    // Calculate eco-value score (lower is better)
-                    // Score = (price / 1000) + carbonImpact
-                    double score1 = p1.getPrice().doubleValue() / 1000.0 + p1.getCarbonImpact().doubleValue();
-                    double score2 = p2.getPrice().doubleValue() / 1000.0 + p2.getCarbonImpact().doubleValue();
-                    return Double.compare(score1, score2);
-                })
+    public List<ProductCard> getBestEcoValueProducts(String category, int limit) {
+        return productCatalog.snapshot().byEcoValue()
+                .filter(p -> category == null || p.category().equals(category))
                 .limit(limit)
-                .collect(Collectors.toList());
+                .map(ProductCard::from)
+                .toList();
     }
 }
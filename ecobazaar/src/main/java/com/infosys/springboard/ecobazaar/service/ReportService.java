@@ -1,15 +1,23 @@
 package com.infosys.springboard.ecobazaar.service;
 
+import com.infosys.springboard.ecobazaar.dto.BoughtLine;
+import com.infosys.springboard.ecobazaar.dto.RangeReport;
+import com.infosys.springboard.ecobazaar.dto.SalesBucket;
 import com.infosys.springboard.ecobazaar.dto.SellerSalesReportDTO;
+import com.infosys.springboard.ecobazaar.dto.SoldLine;
 import com.infosys.springboard.ecobazaar.dto.UserPurchaseReportDTO;
 import com.infosys.springboard.ecobazaar.entity.Order;
-import com.infosys.springboard.ecobazaar.entity.OrderItem;
-import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.entity.SellerSalesRollup;
 import com.infosys.springboard.ecobazaar.entity.User;
-import com.infosys.springboard.ecobazaar.repository.OrderRepository;
+import com.infosys.springboard.ecobazaar.entity.UserPurchaseRollup;
+import com.infosys.springboard.ecobazaar.repository.OrderItemRepository;
+import com.infosys.springboard.ecobazaar.repository.SellerSalesRollupRepository;
+import com.infosys.springboard.ecobazaar.repository.UserPurchaseRollupRepository;
 import com.infosys.springboard.ecobazaar.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -17,103 +25,146 @@ import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ReportService {
 
     @Autowired
-    private OrderRepository orderRepository;
+    private UserRepository userRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserPurchaseRollupRepository userPurchaseRollupRepository;
+
+    @Autowired
+    private SellerSalesRollupRepository sellerSalesRollupRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    // "rollup" (default) or "aggregate": where seller report totals are read from
+    @Value("${reports.seller.source:rollup}")
+    private String sellerReportSource;
+
+    private static final int MAX_RANGE_MONTHS = 24;
 
     /**
-     * Generate USER PURCHASE REPORT - shows items BOUGHT by user
+     * Generate USER PURCHASE REPORT - shows items BOUGHT by user.
+     * Totals and breakdowns are read from the monthly rollups; the individual
+     * items are only loaded when includeItems is set.
      */
-    public UserPurchaseReportDTO generateUserPurchaseReport(Long userId, String month) {
+    @Transactional(readOnly = true)
+    public UserPurchaseReportDTO generateUserPurchaseReport(Long userId, String month, boolean includeItems) {
         // Parse month
         YearMonth yearMonth = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyy-MM"));
-        LocalDateTime startDate = yearMonth.atDay(1).atStartOfDay();
-        LocalDateTime endDate = yearMonth.atEndOfMonth().atTime(23, 59, 59);
 
         // Get user
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
 
-        // Get user's orders in date range
-        List<Order> orders = orderRepository.findByUserIdAndOrderDateBetween(userId, startDate, endDate);
-
         // Create report
-        UserPurchaseReportDTO report = new UserPurchaseReportDTO(userId, user.getName(), month);
+        UserPurchaseReportDTO report = buildUserPurchaseReport(user, month,
+                userPurchaseRollupRepository.findByUserIdAndMonth(userId, yearMonth.toString()));
+
+        if (includeItems) {
+            addItemsBought(report, userId, yearMonth);
+        }
+
+        System.out.println("✅ USER PURCHASE REPORT GENERATED");
+        System.out.println("   User: " + user.getName());
+        System.out.println("   Month: " + month);
+        System.out.println("   Total Orders: " + report.getTotalOrders());
+        System.out.println("   Total Items Bought: " + report.getTotalItemsBought());
+        System.out.println("   Total Spent: ₹" + report.getTotalSpent());
+        System.out.println("   Categories: " + report.getCategoryBreakdown().size());
+
+        return report;
+    }
 
-        Set<Long> uniqueOrderIds = new HashSet<>();
+    /**
+     * USER PURCHASE REPORTS for a range of months: one report per month plus the
+     * range total, all built from a single read of the monthly rollups
+     */
+    @Transactional(readOnly = true)
+    public RangeReport<UserPurchaseReportDTO> generateUserPurchaseRangeReport(Long userId, String from, String to) {
+        YearMonth start = YearMonth.parse(from, DateTimeFormatter.ofPattern("yyyy-MM"));
+        YearMonth end = YearMonth.parse(to, DateTimeFormatter.ofPattern("yyyy-MM"));
+        validateRange(start, end);
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
+
+        List<UserPurchaseRollup> rows = userPurchaseRollupRepository.findByUserIdAndMonthBetween(
+                userId, start.toString(), end.toString());
+        Map<String, List<UserPurchaseRollup>> rowsByMonth = new HashMap<>();
+        for (UserPurchaseRollup row : rows) {
+            rowsByMonth.computeIfAbsent(row.getMonth(), m -> new ArrayList<>()).add(row);
+        }
+
+        List<UserPurchaseReportDTO> months = new ArrayList<>();
+        for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
+            months.add(buildUserPurchaseReport(user, month.toString(),
+                    rowsByMonth.getOrDefault(month.toString(), List.of())));
+        }
+        // Order counts add up across months: an order falls in one month
+        UserPurchaseReportDTO total = buildUserPurchaseReport(user, start + ".." + end, rows);
+
+        System.out.println("✅ USER PURCHASE RANGE REPORT GENERATED: " + user.getName() + " " + start + ".." + end);
+
+        return new RangeReport<>(start.toString(), end.toString(), total, months);
+    }
+
+    /**
+     * Purchase report figures from rollup rows of one or more months
+     */
+    private UserPurchaseReportDTO buildUserPurchaseReport(User user, String period, List<UserPurchaseRollup> rows) {
+        UserPurchaseReportDTO report = new UserPurchaseReportDTO(user.getId(), user.getName(), period);
+
+        int totalOrders = 0;
         int totalItems = 0;
         BigDecimal totalSpent = BigDecimal.ZERO;
         BigDecimal totalCarbon = BigDecimal.ZERO;
 
-        // New: Track category statistics
-        Map<String, CategoryStats> categoryStatsMap = new HashMap<>();
-        
-        // New: Track carbon impact by eco rating
+        Map<String, UserPurchaseReportDTO.CategoryStatsDTO> categoryStatsMap = new HashMap<>();
+
+        // Track carbon impact by eco rating
         int ecoFriendlyCount = 0;
         int moderateCount = 0;
         int highImpactCount = 0;
         BigDecimal estimatedCarbonSaved = BigDecimal.ZERO;
 
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-        for (Order order : orders) {
-            uniqueOrderIds.add(order.getId());
-
-            for (OrderItem item : order.getOrderItems()) {
-                String category = item.getProduct().getCategory();
-                String ecoRating = item.getProduct().getEcoRating();
-                
-                // Create purchased item DTO
-                UserPurchaseReportDTO.PurchasedItemDTO purchasedItem =
-                        new UserPurchaseReportDTO.PurchasedItemDTO(
-                                item.getProduct().getName(),
-                                category,
-                                ecoRating,
-                                item.getQuantity(),
-                                item.getPrice(),
-                                item.getSubtotal(),
-                                item.getCarbonImpact(),
-                                item.getTotalCarbon(),
-                                order.getOrderDate().format(dateFormatter),
-                                item.getProduct().getSeller().getName()
-                        );
+        for (UserPurchaseRollup row : rows) {
+            if (row.getItemCount() <= 0) {
+                continue; // every order in this bucket was cancelled or returned
+            }
 
-                report.getItemsBought().add(purchasedItem);
-
-                // Update totals
-                totalItems += item.getQuantity();
-                totalSpent = totalSpent.add(item.getSubtotal());
-                totalCarbon = totalCarbon.add(item.getTotalCarbon());
-                
-                // Update category statistics
-                categoryStatsMap.putIfAbsent(category, new CategoryStats(category));
-                CategoryStats stats = categoryStatsMap.get(category);
-                stats.itemCount += item.getQuantity();
-                stats.totalSpent = stats.totalSpent.add(item.getSubtotal());
-                stats.totalCarbon = stats.totalCarbon.add(item.getTotalCarbon());
-                stats.orderIds.add(order.getId());
-                
-                // Track eco rating counts and estimate carbon savings
-                switch (ecoRating) {
+            if (row.isTotal()) {
+                totalOrders += row.getOrderCount();
+                totalItems += row.getItemCount();
+                totalSpent = totalSpent.add(row.getTotalSpent());
+                totalCarbon = totalCarbon.add(row.getTotalCarbon());
+            } else if (row.isCategoryTotal()) {
+                UserPurchaseReportDTO.CategoryStatsDTO stats = categoryStatsMap.computeIfAbsent(row.getCategory(),
+                    category -> new UserPurchaseReportDTO.CategoryStatsDTO(category, 0, BigDecimal.ZERO, BigDecimal.ZERO, 0));
+                stats.setItemCount(stats.getItemCount() + row.getItemCount());
+                stats.setTotalSpent(stats.getTotalSpent().add(row.getTotalSpent()));
+                stats.setTotalCarbonEmitted(stats.getTotalCarbonEmitted().add(row.getTotalCarbon()));
+                stats.setOrderCount(stats.getOrderCount() + row.getOrderCount());
+            } else {
+                switch (row.getEcoRating()) {
                     case "ECO_FRIENDLY":
-                        ecoFriendlyCount += item.getQuantity();
+                        ecoFriendlyCount += row.getItemCount();
                         // Estimate: If user chose high-impact instead (assume 10x carbon)
                         estimatedCarbonSaved = estimatedCarbonSaved.add(
-                            item.getTotalCarbon().multiply(new BigDecimal("9"))
+                            row.getTotalCarbon().multiply(new BigDecimal("9"))
                         );
                         break;
                     case "MODERATE":
-                        moderateCount += item.getQuantity();
+                        moderateCount += row.getItemCount();
                         break;
                     case "HIGH_IMPACT":
-                        highImpactCount += item.getQuantity();
+                        highImpactCount += row.getItemCount();
                         break;
                     default:
                         break;
@@ -121,32 +172,20 @@ public class ReportService {
             }
         }
 
-        report.setTotalOrders(uniqueOrderIds.size());
+        report.setTotalOrders(totalOrders);
         report.setTotalItemsBought(totalItems);
         report.setTotalSpent(totalSpent);
         report.setTotalCarbonEmitted(totalCarbon);
-        
-        // Build category breakdown
-        List<UserPurchaseReportDTO.CategoryStatsDTO> categoryBreakdown = categoryStatsMap.entrySet().stream()
-            .map(entry -> new UserPurchaseReportDTO.CategoryStatsDTO(
-                entry.getKey(),
-                entry.getValue().itemCount,
-                entry.getValue().totalSpent,
-                entry.getValue().totalCarbon,
-                entry.getValue().orderIds.size()
-            ))
-            .sorted((a, b) -> b.getTotalSpent().compareTo(a.getTotalSpent())) // Sort by spending
-            .collect(Collectors.toList());
+
+        List<UserPurchaseReportDTO.CategoryStatsDTO> categoryBreakdown = new ArrayList<>(categoryStatsMap.values());
+        categoryBreakdown.sort((a, b) -> b.getTotalSpent().compareTo(a.getTotalSpent())); // Sort by spending
+        Map<String, BigDecimal> priceByCategory = new HashMap<>();
+        for (UserPurchaseReportDTO.CategoryStatsDTO stats : categoryBreakdown) {
+            priceByCategory.put(stats.getCategory(), stats.getTotalSpent());
+        }
         report.setCategoryBreakdown(categoryBreakdown);
-        
-        // Build price by category map
-        Map<String, BigDecimal> priceByCategory = categoryStatsMap.entrySet().stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                entry -> entry.getValue().totalSpent
-            ));
         report.setPriceByCategory(priceByCategory);
-        
+
         // Build carbon impact details
         UserPurchaseReportDTO.CarbonImpactDetailsDTO carbonDetails = 
             new UserPurchaseReportDTO.CarbonImpactDetailsDTO();
@@ -163,187 +202,199 @@ public class ReportService {
         }
         report.setCarbonImpactDetails(carbonDetails);
 
-        System.out.println("✅ USER PURCHASE REPORT GENERATED");
-        System.out.println("   User: " + user.getName());
-        System.out.println("   Month: " + month);
-        System.out.println("   Total Orders: " + report.getTotalOrders());
-        System.out.println("   Total Items Bought: " + report.getTotalItemsBought());
-        System.out.println("   Total Spent: ₹" + report.getTotalSpent());
-        System.out.println("   Categories: " + categoryBreakdown.size());
-
         return report;
     }
-    
-    // Helper class to track category statistics
-    private static class CategoryStats {
-        String category;
-        int itemCount = 0;
-        BigDecimal totalSpent = BigDecimal.ZERO;
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        BigDecimal totalCarbon = BigDecimal.ZERO;
-        Set<Long> orderIds = new HashSet<>();
-        
-        CategoryStats(String category) {
-            this.category = category;
+
+    private static void validateRange(YearMonth start, YearMonth end) {
+        if (end.isBefore(start)) {
+            throw new RuntimeException("Range end " + end + " is before its start " + start);
         }
-    }
-    
-    // Helper class to track daily sales statistics
-    private static class DailySalesStats {
-        String date;
-        int itemsSold = 0;
-        BigDecimal revenue = BigDecimal.ZERO;
-        Set<Long> orderIds = new HashSet<>();
-        
-        DailySalesStats(String date) {
-            this.date = date;
+        if (start.plusMonths(MAX_RANGE_MONTHS).isBefore(end.plusMonths(1))) {
+            throw new RuntimeException("Ranges are limited to " + MAX_RANGE_MONTHS + " months");
         }
     }
 
     /**
-     * Generate SELLER SALES REPORT - shows items SOLD by seller
+     * Item-level detail for the purchase report (same orders the rollups count)
      */
+    private void addItemsBought(UserPurchaseReportDTO report, Long userId, YearMonth yearMonth) {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        forEachBoughtLine(userId, yearMonth, line -> report.getItemsBought().add(
+                new UserPurchaseReportDTO.PurchasedItemDTO(
+                        line.productName(),
+                        line.category(),
+                        line.ecoRating(),
+                        line.quantity(),
+                        line.price(),
+                        line.subtotal(),
+                        line.carbonImpact(),
+                        line.totalCarbon(),
+                        line.orderDate().format(dateFormatter),
+                        line.sellerName()
+                )));
+    }
+
     /**
-     * Generate SELLER SALES REPORT - shows items SOLD by seller
+     * A copy of a cached purchase report with its item lines loaded fresh. Lines are
+     * never cached (see ReportCache), so the cached summary itself stays line-free.
      */
-    public SellerSalesReportDTO generateSellerSalesReport(Long sellerId, String month) {
-        // Parse month
-        YearMonth yearMonth = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyy-MM"));
+    @Transactional(readOnly = true)
+    public UserPurchaseReportDTO withItemsBought(UserPurchaseReportDTO summary) {
+        UserPurchaseReportDTO report = new UserPurchaseReportDTO(
+                summary.getUserId(), summary.getUserName(), summary.getMonth());
+        report.setTotalItemsBought(summary.getTotalItemsBought());
+        report.setTotalOrders(summary.getTotalOrders());
+        report.setTotalSpent(summary.getTotalSpent());
+        report.setTotalCarbonEmitted(summary.getTotalCarbonEmitted());
+        report.setCategoryBreakdown(summary.getCategoryBreakdown());
+        report.setCarbonImpactDetails(summary.getCarbonImpactDetails());
+        report.setPriceByCategory(summary.getPriceByCategory());
+        addItemsBought(report, summary.getUserId(), YearMonth.parse(summary.getMonth()));
+        return report;
+    }
+
+    /**
+     * Pass each line the buyer's purchase report counts to the consumer, streamed
+     * from the database in order date order (for exports of any size)
+     */
+    @Transactional(readOnly = true)
+    public void forEachBoughtLine(Long userId, YearMonth yearMonth, Consumer<BoughtLine> consumer) {
         LocalDateTime startDate = yearMonth.atDay(1).atStartOfDay();
         LocalDateTime endDate = yearMonth.atEndOfMonth().atTime(23, 59, 59);
+        try (Stream<BoughtLine> lines = orderItemRepository.streamBoughtLines(userId, startDate, endDate,
+                Order.OrderStatus.CANCELLED, Order.ReturnStatus.APPROVED)) {
+            lines.forEach(consumer);
+        }
+    }
+    
+    /**
+     * Generate SELLER SALES REPORT - shows items SOLD by seller.
+     * Totals, breakdowns and daily sales come from the daily rollups, or with
+     * reports.seller.source=aggregate from three GROUP BY queries over order_items.
+     * Either way the query count does not grow with order volume. The individual
+     * items are only streamed when includeItems is set.
+     */
+    @Transactional(readOnly = true)
+    public SellerSalesReportDTO generateSellerSalesReport(Long sellerId, String month, boolean includeItems) {
+        // Parse month
+        YearMonth yearMonth = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyy-MM"));
 
         // Get seller
         User seller = userRepository.findById(sellerId)
                 .orElseThrow(() -> new RuntimeException("Seller not found with ID: " + sellerId));
 
-        // Get orders containing seller's products
-        List<Order> orders = orderRepository.findOrdersBySellerAndDateRange(sellerId, startDate, endDate);
+        // Daily sales, per-category stats and units per eco rating
+        Map<String, SellerSalesReportDTO.DailySalesDTO> dailySalesData = new HashMap<>();
+        Map<String, SellerSalesReportDTO.CategoryStatsDTO> categoryStatsMap = new HashMap<>();
+        Map<String, Integer> unitsByEcoRating = new HashMap<>();
+
+        boolean aggregate = "aggregate".equalsIgnoreCase(sellerReportSource);
+        if (aggregate) {
+            loadSellerAggregates(sellerId, yearMonth, dailySalesData, categoryStatsMap, unitsByEcoRating);
+        } else {
+            addSellerRollups(sellerSalesRollupRepository.findBySellerIdAndSaleDateBetween(
+                            sellerId, yearMonth.atDay(1), yearMonth.atEndOfMonth()),
+                    dailySalesData, categoryStatsMap, unitsByEcoRating);
+        }
 
         // Create report
-        SellerSalesReportDTO report = new SellerSalesReportDTO(sellerId, seller.getName(), month);
+        SellerSalesReportDTO report = buildSellerSalesReport(seller, month,
+                dailySalesData, categoryStatsMap, unitsByEcoRating);
 
-        Set<Long> uniqueOrderIds = new HashSet<>();
-        int totalItems = 0;
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        BigDecimal totalCarbon = BigDecimal.ZERO;
+        if (includeItems) {
+            addItemsSold(report, sellerId, yearMonth);
+        }
 
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        System.out.println("✅ SELLER SALES REPORT GENERATED" + (aggregate ? " (aggregate queries)" : ""));
+        System.out.println("   Seller: " + seller.getName() + " (ID: " + sellerId + ")");
+        System.out.println("   Month: " + month);
+        System.out.println("   Total Orders: " + report.getTotalOrders());
+        System.out.println("   Total Items Sold: " + report.getTotalItemsSold());
+        System.out.println("   Total Revenue: ₹" + report.getTotalRevenue());
+        System.out.println("   Categories: " + report.getCategoryBreakdown().size());
+        System.out.println("   Days with sales: " + dailySalesData.size());
 
-        // Category tracking
-        Map<String, CategoryStats> categoryStatsMap = new HashMap<>();
-        
-        // Daily sales tracking
-        Map<String, DailySalesStats> dailySalesMap = new HashMap<>();
-        
-        // Carbon impact tracking
-        int ecoFriendlyCount = 0;
-        int moderateCount = 0;
-        int highImpactCount = 0;
+        return report;
+    }
 
-        System.out.println("\n=== SELLER SALES REPORT GENERATION ===");
-        System.out.println("Seller: " + seller.getName() + " (ID: " + sellerId + ")");
-        System.out.println("Month: " + month);
-        System.out.println("Orders found: " + orders.size());
-
-        for (Order order : orders) {
-            System.out.println("\n  Processing Order #" + order.getId());
-            System.out.println("  Order Date: " + order.getOrderDate());
-            System.out.println("  Order Items: " + order.getOrderItems().size());
-
-            for (OrderItem item : order.getOrderItems()) {
-                // Only include items that belong to THIS seller
-                if (item.getProduct().getSeller().getId().equals(sellerId)) {
-                    Product product = item.getProduct();
-                    String category = product.getCategory().toString();
-                    String ecoRating = product.getEcoRating().toString();
-                    
-                    System.out.println("    ✓ Item belongs to seller: " + product.getName() + 
-                                     " (Qty: " + item.getQuantity() + ")");
-
-                    // Create sold item DTO with enhanced fields
-                    SellerSalesReportDTO.SoldItemDTO soldItem =
-                            new SellerSalesReportDTO.SoldItemDTO(
-                                    product.getName(),
-                                    item.getQuantity(),
-                                    item.getPrice(),
-                                    item.getSubtotal(),
-                                    item.getCarbonImpact(),
-                                    item.getTotalCarbon(),
-                                    order.getOrderDate().format(dateFormatter),
-                                    category,
-                                    ecoRating,
-                                    order.getUser().getName()
-                            );
-
-                    report.getItemsSold().add(soldItem);
-
-                    // Update totals
-                    totalItems += item.getQuantity();
-                    totalRevenue = totalRevenue.add(item.getSubtotal());
-                    totalCarbon = totalCarbon.add(item.getTotalCarbon());
-                    uniqueOrderIds.add(order.getId());
-                    
-                    // Update category stats
-                    categoryStatsMap.putIfAbsent(category, new CategoryStats(category));
-                    CategoryStats stats = categoryStatsMap.get(category);
-                    stats.itemCount += item.getQuantity();
-                    stats.totalRevenue = stats.totalRevenue.add(item.getSubtotal());
-                    stats.totalCarbon = stats.totalCarbon.add(item.getTotalCarbon());
-                    stats.orderIds.add(order.getId());
-                    
-                    // Update daily sales stats
-                    String dayKey = order.getOrderDate().format(dayFormatter);
-                    dailySalesMap.putIfAbsent(dayKey, new DailySalesStats(dayKey));
-                    DailySalesStats dailyStats = dailySalesMap.get(dayKey);
-                    dailyStats.itemsSold += item.getQuantity();
-                    dailyStats.revenue = dailyStats.revenue.add(item.getSubtotal());
-                    dailyStats.orderIds.add(order.getId());
-                    
-                    // Track eco ratings
-                    switch (ecoRating) {
-                        case "ECO_FRIENDLY":
-                            ecoFriendlyCount += item.getQuantity();
-                            break;
-                        case "MODERATE":
-                            moderateCount += item.getQuantity();
-                            break;
-                        case "HIGH_IMPACT":
-                            highImpactCount += item.getQuantity();
-                            break;
-                    }
-                } else {
-                    System.out.println("    ✗ Item belongs to different seller: " + 
-                                     item.getProduct().getName() + " (Seller ID: " + 
-                                     item.getProduct().getSeller().getId() + ")");
-                }
-            }
+    /**
+     * SELLER SALES REPORTS for a range of months: one report per month plus the
+     * range total, all built from a single read of the daily rollups
+     */
+    @Transactional(readOnly = true)
+    public RangeReport<SellerSalesReportDTO> generateSellerSalesRangeReport(Long sellerId, String from, String to) {
+        YearMonth start = YearMonth.parse(from, DateTimeFormatter.ofPattern("yyyy-MM"));
+        YearMonth end = YearMonth.parse(to, DateTimeFormatter.ofPattern("yyyy-MM"));
+        validateRange(start, end);
+
+        User seller = userRepository.findById(sellerId)
+                .orElseThrow(() -> new RuntimeException("Seller not found with ID: " + sellerId));
+
+        List<SellerSalesRollup> rows = sellerSalesRollupRepository.findBySellerIdAndSaleDateBetween(
+                sellerId, start.atDay(1), end.atEndOfMonth());
+        Map<YearMonth, List<SellerSalesRollup>> rowsByMonth = new HashMap<>();
+        for (SellerSalesRollup row : rows) {
+            rowsByMonth.computeIfAbsent(YearMonth.from(row.getSaleDate()), m -> new ArrayList<>()).add(row);
+        }
+
+        List<SellerSalesReportDTO> months = new ArrayList<>();
+        for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
+            Map<String, SellerSalesReportDTO.DailySalesDTO> dailySalesData = new HashMap<>();
+            Map<String, SellerSalesReportDTO.CategoryStatsDTO> categoryStatsMap = new HashMap<>();
+            Map<String, Integer> unitsByEcoRating = new HashMap<>();
+            addSellerRollups(rowsByMonth.getOrDefault(month, List.of()), dailySalesData, categoryStatsMap, unitsByEcoRating);
+            months.add(buildSellerSalesReport(seller, month.toString(), dailySalesData, categoryStatsMap, unitsByEcoRating));
+        }
+
+        Map<String, SellerSalesReportDTO.DailySalesDTO> dailySalesData = new HashMap<>();
+        Map<String, SellerSalesReportDTO.CategoryStatsDTO> categoryStatsMap = new HashMap<>();
+        Map<String, Integer> unitsByEcoRating = new HashMap<>();
+        addSellerRollups(rows, dailySalesData, categoryStatsMap, unitsByEcoRating);
+        SellerSalesReportDTO total = buildSellerSalesReport(seller, start + ".." + end,
+                dailySalesData, categoryStatsMap, unitsByEcoRating);
+
+        System.out.println("✅ SELLER SALES RANGE REPORT GENERATED: " + seller.getName() + " " + start + ".." + end);
+
+        return new RangeReport<>(start.toString(), end.toString(), total, months);
+    }
+
+    /**
+     * Sales report from per-day, per-category and per-eco-rating figures. Order counts
+     * add up across days (an order falls on one day), so the totals are day sums.
+     */
+    private SellerSalesReportDTO buildSellerSalesReport(User seller, String period,
+                                                        Map<String, SellerSalesReportDTO.DailySalesDTO> dailySalesData,
+                                                        Map<String, SellerSalesReportDTO.CategoryStatsDTO> categoryStatsMap,
+                                                        Map<String, Integer> unitsByEcoRating) {
+        SellerSalesReportDTO report = new SellerSalesReportDTO(seller.getId(), seller.getName(), period);
+
+        int totalOrders = 0;
+        int totalItems = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (SellerSalesReportDTO.DailySalesDTO day : dailySalesData.values()) {
+            totalOrders += day.getOrderCount();
+            totalItems += day.getItemsSold();
+            totalRevenue = totalRevenue.add(day.getRevenue());
         }
 
-        report.setTotalOrders(uniqueOrderIds.size());
-        report.setTotalItemsSold(totalItems);
-        report.setTotalRevenue(totalRevenue);
-        report.setTotalCarbonImpact(totalCarbon);
-        
         // Build category breakdown
-        List<SellerSalesReportDTO.CategoryStatsDTO> categoryBreakdown = new ArrayList<>();
+        List<SellerSalesReportDTO.CategoryStatsDTO> categoryBreakdown = new ArrayList<>(categoryStatsMap.values());
         Map<String, BigDecimal> revenueByCategory = new HashMap<>();
-        
-        for (CategoryStats stats : categoryStatsMap.values()) {
-            categoryBreakdown.add(new SellerSalesReportDTO.CategoryStatsDTO(
-                stats.category,
-                stats.itemCount,
-                stats.totalRevenue,
-                stats.totalCarbon,
-                stats.orderIds.size()
-            ));
-            revenueByCategory.put(stats.category, stats.totalRevenue);
+        BigDecimal totalCarbon = BigDecimal.ZERO;
+        for (SellerSalesReportDTO.CategoryStatsDTO stats : categoryBreakdown) {
+            revenueByCategory.put(stats.getCategory(), stats.getTotalRevenue());
+            totalCarbon = totalCarbon.add(stats.getTotalCarbonEmitted());
         }
-        
+
+        report.setTotalOrders(totalOrders);
+        report.setTotalItemsSold(totalItems);
+        report.setTotalRevenue(totalRevenue);
+        report.setTotalCarbonImpact(totalCarbon);
         report.setCategoryBreakdown(categoryBreakdown);
         report.setRevenueByCategory(revenueByCategory);
         
         // Build carbon impact details
+        int ecoFriendlyCount = unitsByEcoRating.getOrDefault("ECO_FRIENDLY", 0);
         BigDecimal averageCarbon = totalItems > 0 
             ? totalCarbon.divide(BigDecimal.valueOf(totalItems), 2, RoundingMode.HALF_UP)
             : BigDecimal.ZERO;
@@ -359,39 +410,132 @@ public class ReportService {
                 estimatedSaved,
                 averageCarbon,
                 ecoFriendlyCount,
-                moderateCount,
-                highImpactCount
+                unitsByEcoRating.getOrDefault("MODERATE", 0),
+                unitsByEcoRating.getOrDefault("HIGH_IMPACT", 0)
             );
         
         report.setCarbonImpactDetails(carbonDetails);
-        
-        // Build daily sales data
-        Map<String, SellerSalesReportDTO.DailySalesDTO> dailySalesData = new HashMap<>();
-        System.out.println("\n📊 Building Daily Sales Data:");
-        System.out.println("   Daily sales map size: " + dailySalesMap.size());
-        for (DailySalesStats dailyStats : dailySalesMap.values()) {
-            System.out.println("   Date: " + dailyStats.date + 
-                             " | Items: " + dailyStats.itemsSold + 
-                             " | Revenue: ₹" + dailyStats.revenue + 
-                             " | Orders: " + dailyStats.orderIds.size());
-            dailySalesData.put(dailyStats.date, new SellerSalesReportDTO.DailySalesDTO(
-                dailyStats.date,
-                dailyStats.itemsSold,
-                dailyStats.revenue,
-                dailyStats.orderIds.size()
+        report.setDailySales(dailySalesData);
+
+        return report;
+    }
+
+    /**
+     * Add seller_sales_rollups rows (at most one per day and bucket) to the report figures
+     */
+    private void addSellerRollups(List<SellerSalesRollup> rows,
+                                  Map<String, SellerSalesReportDTO.DailySalesDTO> dailySalesData,
+                                  Map<String, SellerSalesReportDTO.CategoryStatsDTO> categoryStatsMap,
+                                  Map<String, Integer> unitsByEcoRating) {
+        for (SellerSalesRollup row : rows) {
+            if (row.getItemCount() <= 0) {
+                continue; // every order in this bucket was cancelled or returned
+            }
+
+            if (row.isTotal()) {
+                String dayKey = row.getSaleDate().toString();
+                dailySalesData.put(dayKey, new SellerSalesReportDTO.DailySalesDTO(
+                    dayKey,
+                    row.getItemCount(),
+                    row.getTotalRevenue(),
+                    row.getOrderCount()
+                ));
+            } else if (row.isCategoryTotal()) {
+                SellerSalesReportDTO.CategoryStatsDTO stats = categoryStatsMap.computeIfAbsent(row.getCategory(),
+                    category -> new SellerSalesReportDTO.CategoryStatsDTO(category, 0, BigDecimal.ZERO, BigDecimal.ZERO, 0));
+                stats.setItemCount(stats.getItemCount() + row.getItemCount());
+                stats.setTotalRevenue(stats.getTotalRevenue().add(row.getTotalRevenue()));
+                stats.setTotalCarbonEmitted(stats.getTotalCarbonEmitted().add(row.getTotalCarbon()));
+                stats.setOrderCount(stats.getOrderCount() + row.getOrderCount());
+            } else {
+                unitsByEcoRating.merge(row.getEcoRating(), row.getItemCount(), Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Seller report figures straight from order_items: one GROUP BY query per dimension
+     */
+    private void loadSellerAggregates(Long sellerId, YearMonth yearMonth,
+                                      Map<String, SellerSalesReportDTO.DailySalesDTO> dailySalesData,
+                                      Map<String, SellerSalesReportDTO.CategoryStatsDTO> categoryStatsMap,
+                                      Map<String, Integer> unitsByEcoRating) {
+        LocalDateTime startDate = yearMonth.atDay(1).atStartOfDay();
+        LocalDateTime endDate = yearMonth.atEndOfMonth().atTime(23, 59, 59);
+
+        for (SalesBucket day : orderItemRepository.sumSellerSalesByDay(sellerId, startDate, endDate)) {
+            dailySalesData.put(day.getBucket(), new SellerSalesReportDTO.DailySalesDTO(
+                day.getBucket(),
+                day.getUnits().intValue(),
+                day.getRevenue(),
+                day.getOrderCount().intValue()
             ));
         }
-        report.setDailySales(dailySalesData);
-        System.out.println("   Total daily sales records: " + dailySalesData.size());
+        for (SalesBucket category : orderItemRepository.sumSellerSalesByCategory(sellerId, startDate, endDate)) {
+            categoryStatsMap.put(category.getBucket(), new SellerSalesReportDTO.CategoryStatsDTO(
+                category.getBucket(),
+                category.getUnits().intValue(),
+                category.getRevenue(),
+                category.getCarbon(),
+                category.getOrderCount().intValue()
+            ));
+        }
+        for (SalesBucket rating : orderItemRepository.sumSellerSalesByEcoRating(sellerId, startDate, endDate)) {
+            unitsByEcoRating.put(rating.getBucket(), rating.getUnits().intValue());
+        }
+    }
 
-        System.out.println("\n✅ SELLER SALES REPORT COMPLETED");
-        System.out.println("   Total Orders: " + report.getTotalOrders());
-        System.out.println("   Total Items Sold: " + report.getTotalItemsSold());
-        System.out.println("   Total Revenue: ₹" + report.getTotalRevenue());
-        System.out.println("   Categories: " + categoryBreakdown.size());
-        System.out.println("   Items in Report: " + report.getItemsSold().size());
-        System.out.println("=====================================\n");
+    /**
+     * Item-level detail for the sales report: this seller's lines in the counted orders,
+     * streamed as projections (no entity loading per line)
+     */
+    private void addItemsSold(SellerSalesReportDTO report, Long sellerId, YearMonth yearMonth) {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        forEachSoldLine(sellerId, yearMonth, line -> report.getItemsSold().add(
+                new SellerSalesReportDTO.SoldItemDTO(
+                        line.productName(),
+                        line.quantity(),
+                        line.price(),
+                        line.subtotal(),
+                        line.carbonImpact(),
+                        line.totalCarbon(),
+                        line.orderDate().format(dateFormatter),
+                        line.category(),
+                        line.ecoRating(),
+                        line.buyerName()
+                )));
+    }
 
+    /**
+     * A copy of a cached sales report with its item lines loaded fresh (see withItemsBought)
+     */
+    @Transactional(readOnly = true)
+    public SellerSalesReportDTO withItemsSold(SellerSalesReportDTO summary) {
+        SellerSalesReportDTO report = new SellerSalesReportDTO(
+                summary.getSellerId(), summary.getSellerName(), summary.getMonth());
+        report.setTotalItemsSold(summary.getTotalItemsSold());
+        report.setTotalOrders(summary.getTotalOrders());
+        report.setTotalRevenue(summary.getTotalRevenue());
+        report.setTotalCarbonImpact(summary.getTotalCarbonImpact());
+        report.setCategoryBreakdown(summary.getCategoryBreakdown());
+        report.setCarbonImpactDetails(summary.getCarbonImpactDetails());
+        report.setRevenueByCategory(summary.getRevenueByCategory());
+        report.setDailySales(summary.getDailySales());
+        addItemsSold(report, summary.getSellerId(), YearMonth.parse(summary.getMonth()));
         return report;
     }
+
+    /**
+     * Pass each line the seller's sales report counts to the consumer, streamed
+     * from the database in order date order (for exports of any size)
+     */
+    @Transactional(readOnly = true)
+    public void forEachSoldLine(Long sellerId, YearMonth yearMonth, Consumer<SoldLine> consumer) {
+        LocalDateTime startDate = yearMonth.atDay(1).atStartOfDay();
+        LocalDateTime endDate = yearMonth.atEndOfMonth().atTime(23, 59, 59);
+        try (Stream<SoldLine> lines = orderItemRepository.streamSoldLines(sellerId, startDate, endDate,
+                Order.OrderStatus.CANCELLED, Order.ReturnStatus.APPROVED)) {
+            lines.forEach(consumer);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.infosys.springboard.ecobazaar.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a JMH benchmark class from JUnit. Benchmark tests carry {@code @Tag(Benchmarks.TAG)}
+ * and are excluded from the normal build; run them with
+ * {@code mvn -Pbenchmark test} (add {@code -Dtest=ProductListBenchmark} for one class).
+ * The GC profiler reports allocation per operation (gc.alloc.rate.norm).
+ */
+public final class Benchmarks {
+
+    public static final String TAG = "benchmark";
+
+    private Benchmarks() {
+    }
+
+    public static Collection<RunResult> run(Class<?> benchmark) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(Pattern.quote(benchmark.getName() + "."))
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .build();
+        return new Runner(options).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.infosys.springboard.ecobazaar.benchmark;
+
+import com.infosys.springboard.ecobazaar.entity.Cart;
+import com.infosys.springboard.ecobazaar.entity.CartItem;
+import com.infosys.springboard.ecobazaar.entity.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart mutations on carts of 1 to 500 lines: the running totals Cart keeps now
+ * versus a full recalculateTotals() after every change, as before. The running
+ * variants should stay flat as the cart grows; add/remove still pays for the
+ * list scan in removeItem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CartBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int lines;
+
+    private Cart cart;
+    private CartItem[] items;
+    private CartItem extra;
+    private int next;
+
+    private static CartItem item(Cart cart, long productId) {
+        Product product = new Product();
+        product.setId(productId);
+        product.setPrice(new BigDecimal("19.99"));
+        product.setCarbonImpact(new BigDecimal("2.35"));
+        return new CartItem(cart, product, 1);
+    }
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        items = new CartItem[lines];
+        for (int i = 0; i < lines; i++) {
+            items[i] = item(cart, i + 1);
+            cart.addItem(items[i]);
+        }
+        extra = item(cart, lines + 1);
+    }
+
+    // Cycles through the lines, toggling each between 1 and 2 so the cart stays the same size
+    private void updateNext() {
+        CartItem item = items[next];
+        next = (next + 1) % lines;
+        cart.updateItemQuantity(item, item.getQuantity() == 1 ? 2 : 1);
+    }
+
+    @Benchmark
+    public BigDecimal updateRunning() {
+        updateNext();
+        return cart.getTotalPrice();
+    }
+
+    @Benchmark
+    public BigDecimal updateAndRecalculate() {
+        updateNext();
+        cart.recalculateTotals();
+        return cart.getTotalPrice();
+    }
+
+    @Benchmark
+    public BigDecimal addRemoveRunning() {
+        cart.addItem(extra);
+        cart.removeItem(extra);
+        return cart.getTotalPrice();
+    }
+
+    @Benchmark
+    public BigDecimal addRemoveAndRecalculate() {
+        cart.addItem(extra);
+        cart.recalculateTotals();
+        cart.removeItem(extra);
+        cart.recalculateTotals();
+        return cart.getTotalPrice();
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmark() throws RunnerException {
+        Benchmarks.run(CartBenchmark.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.infosys.springboard.ecobazaar.benchmark;
+
+import com.infosys.springboard.ecobazaar.security.AuthenticatedUser;
+import com.infosys.springboard.ecobazaar.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification cost of one authenticated request. Before: the filter and the
+ * controller each built a signing key and parser and HMAC-verified the token (two
+ * full parses). After: JwtUtil's shared parser on a token's first use, and a SHA-256
+ * plus cache lookup for every use after that.
+ *
+ * The "before" variants sign with a benchmark key of the same length as JwtUtil's,
+ * so the HMAC cost is the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmarksecretkeybenchmarksecretkey123456";
+
+    private String localToken;
+    private JwtParser sharedParser;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        localToken = Jwts.builder()
+                .setSubject("buyer@example.com")
+                .claim("uid", 7L)
+                .claim("role", "USER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))
+                .signWith(key)
+                .compact();
+        sharedParser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken(7L, "buyer@example.com", "USER");
+        jwtUtil.verify(token);
+    }
+
+    // The old JwtUtil.extractEmail
+    private String parseWithNewParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(localToken)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String before() {
+        parseWithNewParser(); // JwtAuthenticationFilter
+        return parseWithNewParser(); // controller getUserFromToken
+    }
+
+    @Benchmark
+    public Claims afterFirstUse() {
+        return sharedParser.parseClaimsJws(localToken).getBody();
+    }
+
+    @Benchmark
+    public AuthenticatedUser afterCached() {
+        return jwtUtil.verify(token);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmark() throws RunnerException {
+        Benchmarks.run(JwtAuthBenchmark.class);
+    }
+}
@@ -0,0 +1,126 @@
+package com.infosys.springboard.ecobazaar.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.springboard.ecobazaar.dto.ProductCard;
+import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.entity.User;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Product list endpoints: full Product entities (2000-char description, seller)
+ * versus ProductCard projections. Each operation builds the list from row values,
+ * as Hibernate would, and serializes it. Compare gc.alloc.rate.norm for allocation;
+ * the payload sizes are checked by {@link #cardPayloadIsAFractionOfTheEntityPayload()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductListBenchmark {
+
+    @Param({"100", "2000"})
+    public int products;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final User seller = seller();
+    private List<Object[]> rows;
+
+    private static User seller() {
+        User seller = new User();
+        seller.setId(1L);
+        seller.setName("Green Goods");
+        seller.setEmail("seller@example.com");
+        seller.setPassword("$2a$10$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234");
+        seller.setRole("SELLER");
+        return seller;
+    }
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(products);
+        String description = "Sustainably made from recycled materials. ".repeat(47);
+        for (long id = 1; id <= products; id++) {
+            rows.add(new Object[]{id, "Product " + id, description, "Home", new BigDecimal("19.99"), 25,
+                    new BigDecimal("2.50"), Boolean.TRUE, "ECO_FRIENDLY", Boolean.TRUE,
+                    "https://cdn.example.com/products/" + id + ".jpg"});
+        }
+    }
+
+    private static Product entity(Object[] row, User seller) {
+        Product product = new Product();
+        product.setId((Long) row[0]);
+        product.setName((String) row[1]);
+        product.setDescription((String) row[2]);
+        product.setCategory((String) row[3]);
+        product.setPrice((BigDecimal) row[4]);
+        product.setStock((Integer) row[5]);
+        product.setCarbonImpact((BigDecimal) row[6]);
+        product.setEcoCertified((Boolean) row[7]);
+        product.setEcoRating((String) row[8]);
+        product.setApproved((Boolean) row[9]);
+        product.setImageUrl((String) row[10]);
+        product.setSeller(seller);
+        return product;
+    }
+
+    // What ProductRepository's CARD_SELECT builds: description cut to the summary in SQL
+    private static ProductCard card(Object[] row) {
+        String description = (String) row[2];
+        return new ProductCard((Long) row[0], (String) row[1],
+                description.substring(0, Math.min(description.length(), ProductCard.SUMMARY_LENGTH)),
+                (String) row[3], (BigDecimal) row[4], (Integer) row[5], (BigDecimal) row[6],
+                (Boolean) row[7], (String) row[8], (Boolean) row[9], (String) row[10]);
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        List<Product> list = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            list.add(entity(row, seller));
+        }
+        return mapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] cards() throws JsonProcessingException {
+        List<ProductCard> list = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            list.add(card(row));
+        }
+        return mapper.writeValueAsBytes(list);
+    }
+
+    @Test
+    void cardPayloadIsAFractionOfTheEntityPayload() throws JsonProcessingException {
+        products = 100;
+        setUp();
+        int entityBytes = entities().length;
+        int cardBytes = cards().length;
+        System.out.printf("Payload for %d products: entities %d bytes, cards %d bytes%n",
+                products, entityBytes, cardBytes);
+        assertThat(cardBytes).isLessThan(entityBytes / 4);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmark() throws RunnerException {
+        Benchmarks.run(ProductListBenchmark.class);
+    }
+}
@@ -0,0 +1,135 @@
+package com.infosys.springboard.ecobazaar.benchmark;
+
+import com.infosys.springboard.ecobazaar.dto.SellerSalesReportDTO;
+import com.infosys.springboard.ecobazaar.dto.SoldLine;
+import com.infosys.springboard.ecobazaar.report.ReportPdfWriter;
+import com.infosys.springboard.ecobazaar.service.ReportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seller sales report PDF with up to 50k lines, the lines fed by a stub of
+ * ReportService's line stream. "streamed" writes to a discarding stream as the
+ * endpoint writes to the response; "inMemory" collects the bytes first, as
+ * building a byte array would. Compare time per report and gc.alloc.rate.norm;
+ * the streamed writer's heap use stays flat with the line count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SellerReportPdfBenchmark {
+
+    @Param({"1000", "50000"})
+    public int lines;
+
+    private ReportPdfWriter writer;
+    private SellerSalesReportDTO report;
+
+    // Lines generated on the fly, like rows read from a database cursor
+    private static final class StubReportService extends ReportService {
+        private final int lines;
+
+        StubReportService(int lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void forEachSoldLine(Long sellerId, YearMonth yearMonth, Consumer<SoldLine> consumer) {
+            LocalDateTime start = yearMonth.atDay(1).atTime(9, 0);
+            for (int i = 0; i < lines; i++) {
+                int quantity = 1 + i % 4;
+                BigDecimal price = BigDecimal.valueOf(499 + i % 1500, 2);
+                BigDecimal carbon = BigDecimal.valueOf(35 + i % 300, 2);
+                consumer.accept(new SoldLine("Bamboo toothbrush set " + (i % 250), quantity, price,
+                        price.multiply(BigDecimal.valueOf(quantity)), carbon,
+                        carbon.multiply(BigDecimal.valueOf(quantity)), start.plusMinutes(i % 40_000),
+                        i % 2 == 0 ? "Personal Care" : "Home", i % 3 == 0 ? "ECO_FRIENDLY" : "MODERATE",
+                        "Buyer " + (i % 5000)));
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        writer = new ReportPdfWriter(new StubReportService(lines));
+        report = new SellerSalesReportDTO(1L, "Green Goods", "2026-03");
+        report.setTotalItemsSold(lines * 2);
+        report.setTotalOrders(lines / 2);
+        report.setTotalRevenue(new BigDecimal("1234567.89"));
+        report.setTotalCarbonImpact(new BigDecimal("98765.43"));
+        SellerSalesReportDTO.CategoryStatsDTO home = new SellerSalesReportDTO.CategoryStatsDTO();
+        home.setCategory("Home");
+        home.setItemCount(lines);
+        home.setTotalRevenue(new BigDecimal("617283.94"));
+        home.setTotalCarbonEmitted(new BigDecimal("49382.71"));
+        home.setOrderCount(lines / 4);
+        report.setCategoryBreakdown(List.of(home));
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    @Benchmark
+    public long streamed() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        writer.writeSellerReport(report, out);
+        return out.bytes;
+    }
+
+    @Benchmark
+    public int inMemory() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeSellerReport(report, out);
+        return out.toByteArray().length;
+    }
+
+    @Test
+    void writesAPdf() throws IOException {
+        lines = 500;
+        setUp();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeSellerReport(report, out);
+
+        String pdf = out.toString(StandardCharsets.ISO_8859_1);
+        assertThat(pdf).startsWith("%PDF-").contains("%%EOF");
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmark() throws RunnerException {
+        Benchmarks.run(SellerReportPdfBenchmark.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CarbonIndexTest {
+
+    static CatalogProduct product(long id, String category, String carbon, int stock) {
+        return new CatalogProduct(id, "Product " + id, null, category, new BigDecimal("10.00"), stock,
+                new BigDecimal(carbon), false, "B", true, null);
+    }
+
+    private static List<Long> ids(List<CatalogProduct> products) {
+        return products.stream().map(CatalogProduct::id).toList();
+    }
+
+    @Test
+    void lowerCarbonThanReturnsStrictlyGreenerProductsLowestFirst() {
+        CarbonIndex index = new CarbonIndex();
+        index.rebuild(List.of(
+                product(1, "Home", "5.00", 10),
+                product(2, "Home", "1.00", 10),
+                product(3, "Home", "3.00", 10),
+                product(4, "Garden", "0.50", 10),
+                product(5, "Home", "9.00", 10)));
+
+        assertThat(ids(index.lowerCarbonThan("Home", new BigDecimal("5.00"), 1L, 5))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void equalCarbonIsNotGreenerAndTiesAreOrderedById() {
+        CarbonIndex index = new CarbonIndex();
+        index.rebuild(List.of(
+                product(7, "Home", "2.00", 10),
+                product(3, "Home", "2.00", 10),
+                product(5, "Home", "2.00", 10),
+                product(9, "Home", "4.00", 10)));
+
+        assertThat(ids(index.lowerCarbonThan("Home", new BigDecimal("4.00"), 9L, 5))).containsExactly(3L, 5L, 7L);
+        assertThat(index.lowerCarbonThan("Home", new BigDecimal("2.00"), 3L, 5)).isEmpty();
+    }
+
+    @Test
+    void limitAndExcludedIdAreRespected() {
+        CarbonIndex index = new CarbonIndex();
+        index.rebuild(List.of(
+                product(1, "Home", "1.00", 10),
+                product(2, "Home", "2.00", 10),
+                product(3, "Home", "3.00", 10),
+                product(4, "Home", "4.00", 10)));
+
+        assertThat(ids(index.lowerCarbonThan("Home", new BigDecimal("9.00"), 2L, 2))).containsExactly(1L, 3L);
+        assertThat(index.lowerCarbonThan("Unknown", new BigDecimal("9.00"), null, 5)).isEmpty();
+    }
+
+    @Test
+    void updatesMoveRemoveAndSkipUnavailableProducts() {
+        CarbonIndex index = new CarbonIndex();
+        index.rebuild(List.of(
+                product(1, "Home", "1.00", 10),
+                product(2, "Home", "2.00", 10),
+                product(3, "Home", "0.10", 0)));
+
+        // Out of stock products are never indexed
+        assertThat(ids(index.lowerCarbonThan("Home", new BigDecimal("5.00"), null, 5))).containsExactly(1L, 2L);
+
+        // Carbon change moves the product, category change takes it out of the old category
+        index.update(2L, product(2, "Home", "0.50", 10));
+        index.update(1L, product(1, "Garden", "1.00", 10));
+        assertThat(ids(index.lowerCarbonThan("Home", new BigDecimal("5.00"), null, 5))).containsExactly(2L);
+        assertThat(ids(index.lowerCarbonThan("Garden", new BigDecimal("5.00"), null, 5))).containsExactly(1L);
+
+        // Deleted or sold out
+        index.update(2L, null);
+        index.update(1L, product(1, "Garden", "1.00", 0));
+        assertThat(index.lowerCarbonThan("Home", new BigDecimal("5.00"), null, 5)).isEmpty();
+        assertThat(index.inCategory("Garden")).isEmpty();
+    }
+}
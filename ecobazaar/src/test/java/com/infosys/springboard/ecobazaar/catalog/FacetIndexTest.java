@@ -0,0 +1,118 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import com.infosys.springboard.ecobazaar.dto.FacetedPage;
+import com.infosys.springboard.ecobazaar.dto.PageCursor;
+import com.infosys.springboard.ecobazaar.dto.ProductCard;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetIndexTest {
+
+    private static CatalogProduct product(long id, String category, String ecoRating, boolean certified,
+                                          int price, boolean approved) {
+        return new CatalogProduct(id, "Product " + id, null, category, BigDecimal.valueOf(price), 5,
+                BigDecimal.valueOf(id), certified, ecoRating, approved, null);
+    }
+
+    private static FacetIndex index() {
+        FacetIndex index = new FacetIndex();
+        index.rebuild(List.of(
+                product(1, "Home", "A", true, 10, true),
+                product(2, "Home", "B", false, 20, true),
+                product(3, "Home", "A", false, 30, true),
+                product(4, "Garden", "A", true, 40, true),
+                product(5, "Garden", "C", true, 50, true),
+                product(6, "Kitchen", "B", true, 60, false)));
+        return index;
+    }
+
+    private static ProductQuery query(String category, String ecoRating, Boolean certified,
+                                      Integer minPrice, Integer maxPrice) {
+        return new ProductQuery(category, ecoRating, certified,
+                minPrice == null ? null : BigDecimal.valueOf(minPrice),
+                maxPrice == null ? null : BigDecimal.valueOf(maxPrice),
+                null, null, null, ProductQuery.Sort.CARBON_ASC);
+    }
+
+    private static List<Long> ids(FacetedPage<ProductCard> page) {
+        return page.getItems().stream().map(ProductCard::id).toList();
+    }
+
+    @Test
+    void eachFacetIsCountedWithoutItsOwnFilter() {
+        FacetedPage<ProductCard> page = index().query(query("Home", "A", null, null, null), null, PageCursor.START, 10);
+
+        assertThat(ids(page)).containsExactly(1L, 3L);
+        assertThat(page.getTotal()).isEqualTo(2);
+        // Categories under rating A, ratings under category Home
+        assertThat(page.getCategories()).isEqualTo(Map.of("Home", 2L, "Garden", 1L));
+        assertThat(page.getEcoRatings()).isEqualTo(Map.of("A", 2L, "B", 1L));
+        assertThat(page.getEcoCertified()).isEqualTo(1);
+    }
+
+    @Test
+    void certifiedFilterNarrowsTheOtherFacets() {
+        FacetedPage<ProductCard> page = index().query(query(null, "A", true, null, null), null, PageCursor.START, 10);
+
+        assertThat(ids(page)).containsExactly(1L, 4L);
+        assertThat(page.getCategories()).isEqualTo(Map.of("Home", 1L, "Garden", 1L));
+        // Unapproved product 6 is never counted
+        assertThat(page.getEcoRatings()).isEqualTo(Map.of("A", 2L, "C", 1L));
+        assertThat(page.getEcoCertified()).isEqualTo(2);
+    }
+
+    @Test
+    void rangeQueriesCountTheSameWayAsBitmapOnlyQueries() {
+        FacetIndex index = index();
+        FacetedPage<ProductCard> bitmaps = index.query(query("Home", "A", null, null, null), null, PageCursor.START, 10);
+        FacetedPage<ProductCard> ranged = index.query(query("Home", "A", null, 0, 1000), null, PageCursor.START, 10);
+
+        assertThat(ids(ranged)).isEqualTo(ids(bitmaps));
+        assertThat(ranged.getTotal()).isEqualTo(bitmaps.getTotal());
+        assertThat(ranged.getCategories()).isEqualTo(bitmaps.getCategories());
+        assertThat(ranged.getEcoRatings()).isEqualTo(bitmaps.getEcoRatings());
+        assertThat(ranged.getEcoCertified()).isEqualTo(bitmaps.getEcoCertified());
+
+        // Ranges apply to every facet count
+        FacetedPage<ProductCard> cheap = index.query(query("Home", "A", null, null, 35), null, PageCursor.START, 10);
+        assertThat(cheap.getCategories()).isEqualTo(Map.of("Home", 2L));
+    }
+
+    @Test
+    void keywordMatchesRestrictTheCandidates() {
+        Map<Long, BigDecimal> keyword = Map.of(2L, BigDecimal.ONE, 5L, BigDecimal.TEN);
+        FacetedPage<ProductCard> page = index().query(query(null, null, null, null, null), keyword, PageCursor.START, 10);
+
+        assertThat(ids(page)).containsExactly(2L, 5L);
+        assertThat(page.getCategories()).isEqualTo(Map.of("Home", 1L, "Garden", 1L));
+    }
+
+    @Test
+    void pagesFollowTheSortOrder() {
+        FacetIndex index = index();
+        FacetedPage<ProductCard> first = index.query(query(null, null, null, null, null), null, PageCursor.START, 2);
+        assertThat(ids(first)).containsExactly(1L, 2L);
+        assertThat(first.getTotal()).isEqualTo(5);
+
+        FacetedPage<ProductCard> second = index.query(query(null, null, null, null, null), null,
+                PageCursor.decode(first.getNext()), 2);
+        assertThat(ids(second)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void updatesMoveProductsBetweenFacets() {
+        FacetIndex index = index();
+        index.update(3L, product(3, "Garden", "C", true, 30, true));
+        index.update(1L, null);
+
+        FacetedPage<ProductCard> page = index.query(query(null, null, null, null, null), null, PageCursor.START, 10);
+        assertThat(page.getCategories()).isEqualTo(Map.of("Home", 1L, "Garden", 3L));
+        assertThat(page.getEcoRatings()).isEqualTo(Map.of("A", 1L, "B", 1L, "C", 2L));
+        assertThat(page.getEcoCertified()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,93 @@
+package com.infosys.springboard.ecobazaar.catalog;
+
+import com.infosys.springboard.ecobazaar.dto.CursorPage;
+import com.infosys.springboard.ecobazaar.dto.PageCursor;
+import com.infosys.springboard.ecobazaar.dto.ProductCard;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    private static CatalogProduct product(long id, String name, String description, String category) {
+        return new CatalogProduct(id, name, description, category, new BigDecimal("10.00"), 5,
+                new BigDecimal("1.00"), false, "B", true, null);
+    }
+
+    private static SearchIndex index() {
+        SearchIndex index = new SearchIndex();
+        index.rebuild(List.of(
+                product(1, "Bamboo toothbrush", "Biodegradable handle", "Personal Care"),
+                product(2, "Cotton tote bag", "Reusable bag, bamboo fibre blend", "Bags"),
+                product(3, "Steel bottle", "Keeps drinks cold", "Kitchen"),
+                product(4, "Bamboo cutlery set", "Travel cutlery in a cotton pouch", "Kitchen")));
+        return index;
+    }
+
+    private static List<Long> ids(CursorPage<ProductCard> page) {
+        return page.getItems().stream().map(ProductCard::id).toList();
+    }
+
+    @Test
+    void tokenizeLowerCasesAndSplitsOnNonAlphanumerics() {
+        assertThat(SearchIndex.tokenize("Eco-Friendly  BAG, 2-pack!")).containsExactly("eco", "friendly", "bag", "2", "pack");
+        assertThat(SearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        // "bamboo" is in the names of 1 and 4 but only the description of 2
+        List<Long> ranked = ids(index().search("bamboo", PageCursor.START, 10));
+        assertThat(ranked).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(ranked.get(2)).isEqualTo(2L);
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        assertThat(index().matchScores("bamboo cotton").keySet()).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(index().matchScores("bamboo steel")).isEmpty();
+        assertThat(index().matchScores(" , ")).isEmpty();
+    }
+
+    @Test
+    void termsMatchAsPrefixes() {
+        assertThat(index().matchScores("bam").keySet()).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(index().matchScores("KITCH").keySet()).containsExactlyInAnyOrder(3L, 4L);
+        assertThat(index().matchScores("bamboos")).isEmpty();
+    }
+
+    @Test
+    void pagesFollowTheRankingWithoutGapsOrRepeats() {
+        SearchIndex index = index();
+        List<Long> all = ids(index.search("bamboo", PageCursor.START, 10));
+
+        List<Long> paged = new ArrayList<>();
+        PageCursor after = PageCursor.START;
+        CursorPage<ProductCard> page;
+        do {
+            page = index.search("bamboo", after, 1);
+            paged.addAll(ids(page));
+            after = PageCursor.decode(page.getNext());
+        } while (page.getNext() != null);
+
+        assertThat(paged).isEqualTo(all);
+    }
+
+    @Test
+    void updatesReplaceAndRemoveDocuments() {
+        SearchIndex index = index();
+        index.update(3L, product(3, "Bamboo bottle", "Keeps drinks cold", "Kitchen"));
+        assertThat(index.matchScores("bamboo")).containsKey(3L);
+        assertThat(index.matchScores("steel")).isEmpty();
+
+        index.update(1L, null);
+        index.update(4L, new CatalogProduct(4L, "Bamboo cutlery set", null, "Kitchen", BigDecimal.ONE, 5,
+                BigDecimal.ONE, false, "B", false, null));
+        assertThat(index.matchScores("bamboo").keySet()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,70 @@
+package com.infosys.springboard.ecobazaar.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        PageCursor cursor = new PageCursor(new BigDecimal("12.50"), 42L);
+        assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+
+        PageCursor negative = new PageCursor(PageCursor.MIN_DECIMAL, 1L);
+        assertThat(PageCursor.decode(negative.encode())).isEqualTo(negative);
+    }
+
+    @Test
+    void cursorWithoutSortKeyRoundTrips() {
+        PageCursor cursor = new PageCursor(null, 7L);
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+        assertThat(decoded.sortKey()).isNull();
+        assertThat(decoded.id()).isEqualTo(7L);
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = new PageCursor(new BigDecimal("99999999.99"), Long.MAX_VALUE).encode();
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingTokenMeansFirstPage() {
+        assertThat(PageCursor.decode(null)).isSameAs(PageCursor.START);
+        assertThat(PageCursor.decode("  ")).isSameAs(PageCursor.START);
+        assertThat(PageCursor.START.idOrZero()).isZero();
+        assertThat(PageCursor.START.sortKeyOr(BigDecimal.ONE)).isEqualTo(BigDecimal.ONE);
+    }
+
+    @Test
+    void badTokensAreRejected() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        for (String token : List.of(
+                "not base64!",
+                encoder.encodeToString("no-separator".getBytes()),
+                encoder.encodeToString("12.5|abc".getBytes()),
+                encoder.encodeToString("abc|12".getBytes()),
+                encoder.encodeToString("12.5|".getBytes()))) {
+            assertThatThrownBy(() -> PageCursor.decode(token))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    @Test
+    void pageCarriesCursorOfLastItemOnlyWhenMoreRowsExist() {
+        CursorPage<Long> last = CursorPage.of(List.of(1L, 2L), 2, id -> new PageCursor(null, id));
+        assertThat(last.getItems()).containsExactly(1L, 2L);
+        assertThat(last.getNext()).isNull();
+
+        CursorPage<Long> more = CursorPage.of(List.of(1L, 2L, 3L), 2, id -> new PageCursor(null, id));
+        assertThat(more.getItems()).containsExactly(1L, 2L);
+        assertThat(PageCursor.decode(more.getNext()).id()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,106 @@
+package com.infosys.springboard.ecobazaar.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CartTest {
+
+    private static CartItem item(Cart cart, long productId, String price, String carbon, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        product.setPrice(new BigDecimal(price));
+        product.setCarbonImpact(new BigDecimal(carbon));
+        return new CartItem(cart, product, quantity);
+    }
+
+    @Test
+    void runningTotalsFollowAddUpdateAndRemove() {
+        Cart cart = new Cart();
+        CartItem soap = item(cart, 1L, "4.99", "0.35", 2);
+        CartItem bottle = item(cart, 2L, "12.50", "1.20", 1);
+
+        cart.addItem(soap);
+        cart.addItem(bottle);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("22.48");
+        assertThat(cart.getTotalCarbon()).isEqualByComparingTo("1.90");
+        assertThat(cart.getTotalItems()).isEqualTo(3);
+
+        cart.updateItemQuantity(soap, 5);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("37.45");
+        assertThat(cart.getTotalItems()).isEqualTo(6);
+
+        cart.removeItem(bottle);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("24.95");
+        assertThat(cart.getTotalCarbon()).isEqualByComparingTo("1.75");
+        assertThat(cart.getTotalItems()).isEqualTo(5);
+        assertThat(bottle.getCart()).isNull();
+        assertThat(cart.recalculateTotals()).isTrue();
+    }
+
+    @Test
+    void removingAnItemTwiceCountsItOnce() {
+        Cart cart = new Cart();
+        CartItem soap = item(cart, 1L, "4.99", "0.35", 2);
+        cart.addItem(soap);
+
+        cart.removeItem(soap);
+        cart.removeItem(soap);
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("0");
+        assertThat(cart.getTotalItems()).isZero();
+        assertThat(cart.recalculateTotals()).isTrue();
+    }
+
+    @Test
+    void runningTotalsMatchFullRecalculationAfterMixedMutations() {
+        Random random = new Random(42);
+        Cart cart = new Cart();
+        List<CartItem> lines = new ArrayList<>();
+        long nextProductId = 1;
+
+        for (int step = 0; step < 2000; step++) {
+            int action = lines.isEmpty() ? 0 : random.nextInt(3);
+            if (action == 0) {
+                CartItem line = item(cart, nextProductId++,
+                        random.nextInt(10_000) / 100 + "." + String.format("%02d", random.nextInt(100)),
+                        random.nextInt(500) / 100 + "." + String.format("%02d", random.nextInt(100)),
+                        1 + random.nextInt(5));
+                cart.addItem(line);
+                lines.add(line);
+            } else if (action == 1) {
+                cart.updateItemQuantity(lines.get(random.nextInt(lines.size())), 1 + random.nextInt(20));
+            } else {
+                cart.removeItem(lines.remove(random.nextInt(lines.size())));
+            }
+
+            if (step % 100 == 99) {
+                BigDecimal price = cart.getTotalPrice();
+                BigDecimal carbon = cart.getTotalCarbon();
+                int count = cart.getTotalItems();
+                assertThat(cart.recalculateTotals()).as("totals after step %d", step).isTrue();
+                assertThat(cart.getTotalPrice()).isEqualByComparingTo(price);
+                assertThat(cart.getTotalCarbon()).isEqualByComparingTo(carbon);
+                assertThat(cart.getTotalItems()).isEqualTo(count);
+            }
+        }
+    }
+
+    @Test
+    void recalculateRepairsDriftedTotals() {
+        Cart cart = new Cart();
+        CartItem soap = item(cart, 1L, "4.99", "0.35", 2);
+        cart.addItem(soap);
+
+        // Bypasses updateItemQuantity, so the running totals go stale
+        soap.setQuantity(3);
+        assertThat(cart.recalculateTotals()).isFalse();
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo("14.97");
+        assertThat(cart.getTotalItems()).isEqualTo(3);
+        assertThat(cart.recalculateTotals()).isTrue();
+    }
+}
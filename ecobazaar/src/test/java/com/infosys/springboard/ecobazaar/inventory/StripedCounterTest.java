@@ -0,0 +1,116 @@
+package com.infosys.springboard.ecobazaar.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedCounterTest {
+
+    @Test
+    void initialUnitsAreSpreadOverStripes() {
+        StripedCounter counter = new StripedCounter(10, 4);
+        assertThat(counter.sum()).isEqualTo(10);
+
+        counter.fill(7);
+        assertThat(counter.sum()).isEqualTo(17);
+    }
+
+    @Test
+    void takeGathersFromSeveralStripesNearSellOut() {
+        StripedCounter counter = new StripedCounter(8, 4);
+
+        // No single stripe holds 5, so this has to take from several
+        assertThat(counter.tryTake(5)).isTrue();
+        assertThat(counter.sum()).isEqualTo(3);
+    }
+
+    @Test
+    void shortfallTakesNothing() {
+        StripedCounter counter = new StripedCounter(3, 4);
+
+        assertThat(counter.tryTake(4)).isFalse();
+        assertThat(counter.sum()).isEqualTo(3);
+        assertThat(counter.tryTake(3)).isTrue();
+        assertThat(counter.sum()).isZero();
+    }
+
+    @Test
+    void addReturnsUnits() {
+        StripedCounter counter = new StripedCounter(0, 4);
+        assertThat(counter.tryTake(1)).isFalse();
+
+        counter.add(2);
+        assertThat(counter.tryTake(2)).isTrue();
+        assertThat(counter.sum()).isZero();
+    }
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        int stock = 10_000;
+        int threads = 8;
+        StripedCounter counter = new StripedCounter(stock, 4);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> sold = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int quantity = t % 3 + 1;
+                sold.add(pool.submit(() -> {
+                    go.await();
+                    int units = 0;
+                    int takes = 0;
+                    // Keep buying until sold out; every tenth checkout rolls back and returns its units
+                    while (counter.tryTake(quantity)) {
+                        if (++takes % 10 == 0) {
+                            counter.add(quantity);
+                        } else {
+                            units += quantity;
+                        }
+                    }
+                    return units;
+                }));
+            }
+            go.countDown();
+
+            int total = 0;
+            for (Future<Integer> future : sold) {
+                total += future.get(30, TimeUnit.SECONDS);
+            }
+            // Every unit is either sold or still in the counter, never both or neither
+            assertThat(counter.sum()).isNotNegative();
+            assertThat(total + counter.sum()).isEqualTo(stock);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentAddsAreAllCounted() throws Exception {
+        StripedCounter counter = new StripedCounter(0, 4);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> adds = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                adds.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        counter.add(1);
+                    }
+                }));
+            }
+            for (Future<?> future : adds) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(counter.sum()).isEqualTo(80_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
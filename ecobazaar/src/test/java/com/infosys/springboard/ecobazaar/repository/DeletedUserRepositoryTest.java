@@ -0,0 +1,26 @@
+package com.infosys.springboard.ecobazaar.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class DeletedUserRepositoryTest {
+
+    @Autowired
+    private DeletedUserRepository deletedUserRepository;
+
+    @Test
+    void deletionsAreFoundUntilTheirTokensHaveExpired() {
+        deletedUserRepository.record(7L);
+
+        assertThat(deletedUserRepository.findIdsDeletedWithin(60)).containsExactly(7L);
+        assertThat(deletedUserRepository.findIdsDeletedWithin(0)).isEmpty();
+    }
+}
@@ -0,0 +1,63 @@
+package com.infosys.springboard.ecobazaar.repository;
+
+import com.infosys.springboard.ecobazaar.dto.BoughtLine;
+import com.infosys.springboard.ecobazaar.entity.Order;
+import com.infosys.springboard.ecobazaar.entity.OrderItem;
+import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class OrderItemRepositoryTest {
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void boughtLinesNameTheSellerAtTheTimeOfOrder() {
+        User firstSeller = user("First Seller", "first@example.com");
+        User buyer = user("Buyer", "buyer@example.com");
+        Product product = entityManager.persist(new Product("Bamboo brush", "Reusable item", "Home",
+                new BigDecimal("4.50"), new BigDecimal("0.30"), firstSeller));
+        Order order = new Order(buyer, new BigDecimal("4.50"), new BigDecimal("0.30"), 1);
+        order.addOrderItem(new OrderItem(product, 1, product.getPrice(), product.getCarbonImpact()));
+        entityManager.persist(order);
+
+        // The product changes hands after the sale
+        product.setSeller(user("Second Seller", "second@example.com"));
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<BoughtLine> lines = orderItemRepository.streamBoughtLines(buyer.getId(),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1),
+                Order.OrderStatus.CANCELLED, Order.ReturnStatus.APPROVED)) {
+            List<BoughtLine> bought = lines.toList();
+            assertThat(bought).extracting(BoughtLine::sellerName).containsExactly("First Seller");
+        }
+    }
+
+    private User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("not-a-hash");
+        return entityManager.persist(user);
+    }
+}
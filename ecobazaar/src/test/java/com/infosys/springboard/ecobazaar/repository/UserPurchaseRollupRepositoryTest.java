@@ -0,0 +1,37 @@
+package com.infosys.springboard.ecobazaar.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class UserPurchaseRollupRepositoryTest {
+
+    @Autowired
+    private UserPurchaseRollupRepository rollupRepository;
+
+    @Test
+    void revisionGrowsWithEveryUpsertIntoTheMonth() {
+        long empty = rollupRepository.revisionOf(1L, "2025-03");
+
+        rollupRepository.upsert(1L, "2025-03", "ALL", "ALL", new BigDecimal("10.00"), BigDecimal.ONE, 1, 1);
+        long inserted = rollupRepository.revisionOf(1L, "2025-03");
+
+        // A return that takes the totals back to zero still changes the revision
+        rollupRepository.upsert(1L, "2025-03", "ALL", "ALL", new BigDecimal("-10.00"), BigDecimal.ONE.negate(), -1, -1);
+        long returned = rollupRepository.revisionOf(1L, "2025-03");
+
+        assertThat(inserted).isGreaterThan(empty);
+        assertThat(returned).isGreaterThan(inserted);
+        assertThat(rollupRepository.revisionOf(1L, "2025-04")).isZero();
+        assertThat(rollupRepository.revisionOf(2L, "2025-03")).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package com.infosys.springboard.ecobazaar.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final JwtUtil jwtUtil = new JwtUtil(now::get, 3);
+
+    @Test
+    void verifyReturnsTheClaims() {
+        AuthenticatedUser user = jwtUtil.verify(jwtUtil.generateToken(7L, "buyer@example.com", "USER"));
+
+        assertThat(user.id()).isEqualTo(7L);
+        assertThat(user.email()).isEqualTo("buyer@example.com");
+        assertThat(user.role()).isEqualTo("USER");
+    }
+
+    @Test
+    void secondVerifyIsServedFromTheCache() {
+        String token = jwtUtil.generateToken(7L, "buyer@example.com", "USER");
+
+        AuthenticatedUser first = jwtUtil.verify(token);
+        // A parse would build a new AuthenticatedUser
+        assertThat(jwtUtil.verify(token)).isSameAs(first);
+        assertThat(jwtUtil.extractEmail(token)).isEqualTo("buyer@example.com");
+        assertThat(jwtUtil.cachedTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedTokenIsNotTrustedPastItsExpiry() {
+        String token = jwtUtil.generateToken(7L, "buyer@example.com", "USER");
+        jwtUtil.verify(token);
+
+        now.addAndGet(25 * HOUR);
+        assertThatThrownBy(() -> jwtUtil.verify(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(jwtUtil.cachedTokens()).isZero();
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAndNotCached() {
+        String token = jwtUtil.generateToken(7L, "buyer@example.com", "USER");
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtUtil.verify(tampered)).isInstanceOf(JwtException.class);
+        assertThat(jwtUtil.cachedTokens()).isZero();
+    }
+
+    @Test
+    void cacheStopsGrowingAtItsBound() {
+        for (long id = 1; id <= 5; id++) {
+            jwtUtil.verify(jwtUtil.generateToken(id, "user" + id + "@example.com", "USER"));
+        }
+        assertThat(jwtUtil.cachedTokens()).isEqualTo(3);
+
+        // Over the bound a token is still verified, just every time
+        String uncached = jwtUtil.generateToken(9L, "user9@example.com", "USER");
+        AuthenticatedUser first = jwtUtil.verify(uncached);
+        assertThat(jwtUtil.verify(uncached)).isNotSameAs(first).isEqualTo(first);
+    }
+
+    @Test
+    void fullCacheDropsExpiredTokensToMakeRoom() {
+        for (long id = 1; id <= 3; id++) {
+            jwtUtil.verify(jwtUtil.generateToken(id, "user" + id + "@example.com", "USER"));
+        }
+
+        now.addAndGet(25 * HOUR);
+        String fresh = jwtUtil.generateToken(4L, "user4@example.com", "USER");
+        AuthenticatedUser user = jwtUtil.verify(fresh);
+
+        assertThat(jwtUtil.cachedTokens()).isEqualTo(1);
+        assertThat(jwtUtil.verify(fresh)).isSameAs(user);
+    }
+}
@@ -0,0 +1,117 @@
+package com.infosys.springboard.ecobazaar.service;
+
+import com.infosys.springboard.ecobazaar.benchmark.Benchmarks;
+import com.infosys.springboard.ecobazaar.entity.Cart;
+import com.infosys.springboard.ecobazaar.entity.CartItem;
+import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.entity.User;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements per checkout (OrderService.createOrderFromCart) for 1, 10 and 50 line carts,
+ * counted with Hibernate Statistics on H2 in MySQL mode. Each product costs one conditional
+ * stock UPDATE (its row count decides the sale); order and line inserts, rollup upserts and
+ * the cart clear are batched or per order. Latencies from {@link #benchmark()} are H2's,
+ * useful for comparing cart sizes rather than as MySQL numbers.
+ */
+class CheckoutStatementsTest extends OrderServiceTestSupport {
+
+    private static final int[] CART_LINES = {1, 10, 50};
+
+    private static final int WARMUP_CHECKOUTS = 20;
+    private static final int MEASURED_CHECKOUTS = 100;
+
+    private record Checkout(long statements, long nanos) {}
+
+    private Long buyerId;
+    private Long cartId;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User seller = user("SELLER");
+        User buyer = user("USER");
+        for (Product product : products(seller, 50, 1_000_000)) {
+            productIds.add(product.getId());
+        }
+        buyerId = buyer.getId();
+        cartId = entityManager.persist(new Cart(buyer)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        // The pooled optimizer reads each id_generators row on its first two uses (the initial
+        // value, then the first real block), so two checkouts leave the measured ones warm
+        checkout(1);
+        checkout(1);
+    }
+
+    @Test
+    void statementsGrowOnlyByTheStockUpdatePerLine() {
+        long fixed = checkout(1).statements() - 1;
+        for (int lines : CART_LINES) {
+            // Crossing into a new pooled id block adds at most a select and an update
+            assertThat(checkout(lines).statements() - lines)
+                    .as("statements besides the stock updates, %d lines", lines)
+                    .isBetween(fixed, fixed + 2);
+        }
+    }
+
+    @Test
+    void checkoutEmptiesTheCart() {
+        checkout(10);
+
+        Cart cart = entityManager.find(Cart.class, cartId);
+        assertThat(cart.getItems()).isEmpty();
+        assertThat(cart.getTotalItems()).isZero();
+        assertThat(entityManager.find(Product.class, productIds.get(0)).getStock()).isEqualTo(1_000_000 - 3);
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmark() {
+        for (int lines : CART_LINES) {
+            for (int i = 0; i < WARMUP_CHECKOUTS; i++) {
+                checkout(lines);
+            }
+            long statements = 0;
+            long nanos = 0;
+            for (int i = 0; i < MEASURED_CHECKOUTS; i++) {
+                Checkout checkout = checkout(lines);
+                statements += checkout.statements();
+                nanos += checkout.nanos();
+            }
+            System.out.printf("Checkout, %2d lines: %5.1f statements, %7.3f ms%n", lines,
+                    (double) statements / MEASURED_CHECKOUTS, nanos / 1e6 / MEASURED_CHECKOUTS);
+        }
+    }
+
+    // Fills the cart with one unit of each of the first `lines` products and checks out
+    private Checkout checkout(int lines) {
+        Cart cart = entityManager.find(Cart.class, cartId);
+        for (int i = 0; i < lines; i++) {
+            cart.addItem(new CartItem(cart, entityManager.find(Product.class, productIds.get(i)), 1));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        User buyer = entityManager.find(User.class, buyerId);
+        Statistics statistics = statistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        orderService.createOrderFromCart(buyer);
+        // Runs the batched inserts and deletes a commit would
+        entityManager.flush();
+        long nanos = System.nanoTime() - start;
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return new Checkout(statements, nanos);
+    }
+}
@@ -0,0 +1,114 @@
+package com.infosys.springboard.ecobazaar.service;
+
+import com.infosys.springboard.ecobazaar.entity.Cart;
+import com.infosys.springboard.ecobazaar.entity.CartItem;
+import com.infosys.springboard.ecobazaar.entity.Order;
+import com.infosys.springboard.ecobazaar.entity.OrderItem;
+import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.entity.User;
+import com.infosys.springboard.ecobazaar.inventory.FlashSaleStock;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared setup of the tests that run OrderService and CartService on H2 (MySQL mode):
+ * one Spring context for all of them, and factories for users, products and orders.
+ * No product is on flash sale, so FlashSaleStock is a mock and every checkout line
+ * takes the stock UPDATE path.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({OrderService.class, CartService.class, PurchaseRollupService.class})
+abstract class OrderServiceTestSupport {
+
+    @Autowired
+    protected OrderService orderService;
+
+    @Autowired
+    protected CartService cartService;
+
+    @Autowired
+    protected TestEntityManager entityManager;
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private FlashSaleStock flashSaleStock;
+
+    private int users;
+
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    protected User user(String role) {
+        users++;
+        User user = new User();
+        user.setName(role.toLowerCase() + users);
+        user.setEmail(role.toLowerCase() + users + "@example.com");
+        user.setPassword("not-a-hash");
+        user.setRole(role);
+        return entityManager.persist(user);
+    }
+
+    protected List<Product> products(User seller, int count, int stock) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product("Product " + i, "Reusable item", "Home",
+                    new BigDecimal("9.99"), new BigDecimal("1.25"), seller);
+            product.setStock(stock);
+            product.setApproved(true);
+            products.add(entityManager.persist(product));
+        }
+        return products;
+    }
+
+    // One unit each of `lines` products, starting at products[first] and wrapping around
+    protected Order order(User buyer, List<Product> products, int first, int lines) {
+        Order order = new Order(buyer, BigDecimal.ZERO, BigDecimal.ZERO, lines);
+        // Counted already, so the rollup catch-up leaves these orders alone
+        order.setRollupCounted(true);
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get((first + i) % products.size());
+            order.addOrderItem(new OrderItem(product, 1, product.getPrice(), product.getCarbonImpact()));
+        }
+        return entityManager.persist(order);
+    }
+
+    // What the order JSON includes: the buyer and every line's product
+    protected static int visit(List<Order> orders) {
+        int lines = 0;
+        for (Order order : orders) {
+            order.getUser().getName();
+            for (OrderItem item : order.getOrderItems()) {
+                item.getProduct().getName();
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    // What the cart JSON includes: every line's product
+    protected static int visit(Cart cart) {
+        int lines = 0;
+        for (CartItem item : cart.getItems()) {
+            item.getProduct().getName();
+            lines++;
+        }
+        return lines;
+    }
+}
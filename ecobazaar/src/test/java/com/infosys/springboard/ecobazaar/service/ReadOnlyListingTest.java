@@ -0,0 +1,137 @@
+package com.infosys.springboard.ecobazaar.service;
+
+import com.infosys.springboard.ecobazaar.benchmark.Benchmarks;
+import com.infosys.springboard.ecobazaar.entity.Order;
+import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.entity.User;
+import com.sun.management.ThreadMXBean;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing every order (OrderService.getAllOrders: orders, lines, products and buyers)
+ * in a read-only transaction versus a read-write one. Read-only, Hibernate keeps no
+ * loaded-state snapshots and the commit does not flush, so nothing is dirty-checked.
+ * {@link #benchmark()} prints the CPU time and bytes allocated per listing for each.
+ * Product lists return ProductCard projections, which Hibernate never tracks, so
+ * orders are the entity listing to measure.
+ * Each listing runs in its own committed transaction, so the test methods are not
+ * wrapped in one and clean up after themselves.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadOnlyListingTest extends OrderServiceTestSupport {
+
+    private static final int[] ORDERS = {500, 2000};
+    private static final int LINES_PER_ORDER = 5;
+
+    private static final int WARMUP_LISTINGS = 5;
+    private static final int MEASURED_LISTINGS = 20;
+
+    private record Cost(long cpuNanos, long allocatedBytes) {}
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void deleteAll() {
+        inTransaction(false, () -> {
+            for (String entity : List.of("OrderItem", "Order", "Product", "User")) {
+                entityManager.getEntityManager().createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+            return 0;
+        });
+    }
+
+    @Test
+    void readOnlyListingIsNeitherFlushedNorDirtyChecked() {
+        seed(20);
+        Statistics statistics = statistics();
+
+        statistics.clear();
+        inTransaction(true, () -> {
+            List<Order> orders = orderService.getAllOrders();
+            orders.forEach(order -> order.setReturnReason("changed while listing"));
+            return orders.size();
+        });
+        assertThat(statistics.getFlushCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+
+        statistics.clear();
+        inTransaction(false, () -> visit(orderService.getAllOrders()));
+        assertThat(statistics.getFlushCount()).isPositive();
+
+        assertThat(inTransaction(true, () -> (int) orderService.getAllOrders().stream()
+                .filter(order -> order.getReturnReason() != null)
+                .count())).isZero();
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void benchmark() {
+        for (int orders : ORDERS) {
+            seed(orders);
+            for (boolean readOnly : new boolean[] {false, true}) {
+                for (int i = 0; i < WARMUP_LISTINGS; i++) {
+                    list(readOnly);
+                }
+                long cpuNanos = 0;
+                long allocatedBytes = 0;
+                for (int i = 0; i < MEASURED_LISTINGS; i++) {
+                    Cost cost = list(readOnly);
+                    cpuNanos += cost.cpuNanos();
+                    allocatedBytes += cost.allocatedBytes();
+                }
+                System.out.printf("All orders, %4d orders, %s: %7.2f ms CPU, %7.2f MB allocated%n",
+                        orders, readOnly ? "read-only " : "read-write",
+                        cpuNanos / 1e6 / MEASURED_LISTINGS, allocatedBytes / 1e6 / MEASURED_LISTINGS);
+            }
+            deleteAll();
+        }
+    }
+
+    // CPU time and allocation of this thread for one listing, commit included
+    private Cost list(boolean readOnly) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long cpuNanos = threads.getCurrentThreadCpuTime();
+        long allocatedBytes = threads.getCurrentThreadAllocatedBytes();
+        int lines = inTransaction(readOnly, () -> visit(orderService.getAllOrders()));
+        assertThat(lines).isPositive();
+        return new Cost(threads.getCurrentThreadCpuTime() - cpuNanos,
+                threads.getCurrentThreadAllocatedBytes() - allocatedBytes);
+    }
+
+    // The service joins this transaction, so readOnly decides the session's mode
+    private int inTransaction(boolean readOnly, Supplier<Integer> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> work.get());
+    }
+
+    private void seed(int orders) {
+        inTransaction(false, () -> {
+            List<Product> products = products(user("SELLER"), 50, 100);
+            List<User> buyers = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                buyers.add(user("USER"));
+            }
+            for (int o = 0; o < orders; o++) {
+                order(buyers.get(o % buyers.size()), products, o, LINES_PER_ORDER);
+            }
+            return orders;
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.infosys.springboard.ecobazaar.service;
+
+import com.infosys.springboard.ecobazaar.entity.Cart;
+import com.infosys.springboard.ecobazaar.entity.CartItem;
+import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.entity.User;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The order lists and cart reads load their lines and products with entity graphs, so
+ * the statements they prepare (Hibernate Statistics, H2 in MySQL mode) stay the same
+ * however many orders and lines there are. Each read walks the associations its JSON
+ * response does, so a lazy load per row would show up as a growing count.
+ */
+class ReadStatementsTest extends OrderServiceTestSupport {
+
+    private static final int PRODUCTS = 25;
+
+    @Test
+    void userOrderListStatementsDoNotGrowWithOrdersOrLines() {
+        User seller = user("SELLER");
+        List<Product> products = products(seller);
+        User fewOrders = buyerWithOrders(products, 2, 1);
+        User manyOrders = buyerWithOrders(products, 40, PRODUCTS);
+
+        long few = statements(() -> visit(orderService.getUserOrders(fewOrders.getId())));
+        long many = statements(() -> visit(orderService.getUserOrders(manyOrders.getId())));
+
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void sellerOrderListStatementsDoNotGrowWithOrdersOrLines() {
+        User smallSeller = user("SELLER");
+        User bigSeller = user("SELLER");
+        buyerWithOrders(products(smallSeller), 2, 1);
+        List<Product> bigCatalog = products(bigSeller);
+        for (int i = 0; i < 10; i++) {
+            buyerWithOrders(bigCatalog, 8, PRODUCTS);
+        }
+
+        long few = statements(() -> visit(orderService.getSellerOrders(smallSeller.getId())));
+        long many = statements(() -> visit(orderService.getSellerOrders(bigSeller.getId())));
+
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void cartReadStatementsDoNotGrowWithLines() {
+        List<Product> products = products(user("SELLER"));
+        User smallCart = buyerWithCart(products, 1);
+        User bigCart = buyerWithCart(products, PRODUCTS);
+
+        long few = statements(() -> visit(cartService.getCartByUserId(smallCart.getId())));
+        long many = statements(() -> visit(cartService.getCartByUserId(bigCart.getId())));
+
+        assertThat(many).isEqualTo(few);
+    }
+
+    // Statements prepared by the read, starting from an empty persistence context
+    private long statements(Supplier<Integer> read) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+        assertThat(read.get()).isPositive();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Product> products(User seller) {
+        return products(seller, PRODUCTS, 100);
+    }
+
+    private User buyerWithOrders(List<Product> products, int orders, int linesPerOrder) {
+        User buyer = user("USER");
+        for (int o = 0; o < orders; o++) {
+            order(buyer, products, 0, linesPerOrder);
+        }
+        return buyer;
+    }
+
+    private User buyerWithCart(List<Product> products, int lines) {
+        User buyer = user("USER");
+        Cart cart = new Cart(buyer);
+        for (int i = 0; i < lines; i++) {
+            cart.addItem(new CartItem(cart, products.get(i), 1));
+        }
+        entityManager.persist(cart);
+        return buyer;
+    }
+}
@@ -0,0 +1,73 @@
+package com.infosys.springboard.ecobazaar.service;
+
+import com.infosys.springboard.ecobazaar.entity.Order;
+import com.infosys.springboard.ecobazaar.entity.Product;
+import com.infosys.springboard.ecobazaar.entity.SellerSalesRollup;
+import com.infosys.springboard.ecobazaar.entity.User;
+import com.infosys.springboard.ecobazaar.entity.UserPurchaseRollup;
+import com.infosys.springboard.ecobazaar.repository.SellerSalesRollupRepository;
+import com.infosys.springboard.ecobazaar.repository.UserPurchaseRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The rollup catch-up (PurchaseRollupService.catchUp) on H2, which has no MySQL named
+ * lock: the h2 profile turns it off, so the batch runs under the in-JVM lock.
+ */
+class RollupCatchUpTest extends OrderServiceTestSupport {
+
+    @Autowired
+    private PurchaseRollupService rollupService;
+
+    @Autowired
+    private UserPurchaseRollupRepository rollupRepository;
+
+    @Autowired
+    private SellerSalesRollupRepository sellerRollupRepository;
+
+    @Test
+    void catchUpAddsUncountedOrdersOnce() {
+        User seller = user("SELLER");
+        User buyer = user("USER");
+        List<Product> products = products(seller, 3, 100);
+        Order placed = uncounted(order(buyer, products, 0, 2));
+        Order cancelled = uncounted(order(buyer, products, 0, 3));
+        cancelled.setStatus(Order.OrderStatus.CANCELLED);
+        entityManager.flush();
+
+        rollupService.catchUp();
+        // A second run finds nothing left to add
+        rollupService.catchUp();
+        entityManager.clear();
+
+        String month = placed.getOrderDate().format(DateTimeFormatter.ofPattern("yyyy-MM"));
+        UserPurchaseRollup total = rollupRepository.findByUserIdAndMonth(buyer.getId(), month).stream()
+                .filter(UserPurchaseRollup::isTotal)
+                .findFirst().orElseThrow();
+        assertThat(total.getTotalSpent()).isEqualByComparingTo(new BigDecimal("19.98"));
+        assertThat(total.getItemCount()).isEqualTo(2);
+        assertThat(total.getOrderCount()).isEqualTo(1);
+
+        SellerSalesRollup sellerTotal = sellerRollupRepository.findBySellerIdAndSaleDateBetween(
+                        seller.getId(), placed.getOrderDate().toLocalDate(), placed.getOrderDate().toLocalDate()).stream()
+                .filter(SellerSalesRollup::isTotal)
+                .findFirst().orElseThrow();
+        assertThat(sellerTotal.getTotalRevenue()).isEqualByComparingTo(new BigDecimal("19.98"));
+        assertThat(sellerTotal.getOrderCount()).isEqualTo(1);
+
+        assertThat(entityManager.find(Order.class, placed.getId()).getRollupCounted()).isTrue();
+        assertThat(entityManager.find(Order.class, cancelled.getId()).getRollupCounted()).isFalse();
+    }
+
+    // As if placed by a node running code from before the rollups
+    private static Order uncounted(Order order) {
+        order.setRollupCounted(null);
+        return order;
+    }
+}